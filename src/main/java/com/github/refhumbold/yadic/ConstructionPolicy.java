@@ -2,5 +2,38 @@ package com.github.refhumbold.yadic;
 
 public enum ConstructionPolicy
 {
-    CONSTRUCTION, SINGLETON
+    /**
+     * New instance is constructed for each dependent.
+     */
+    CONSTRUCTION,
+    /**
+     * Single instance is shared by the whole container.
+     */
+    SINGLETON,
+    /**
+     * Single instance is shared by the whole container, but held through a soft reference. When
+     * garbage collector releases it under memory pressure, it is constructed again on the next
+     * resolve.
+     */
+    SOFT_SINGLETON,
+    /**
+     * Single instance is shared by all dependents within one call of resolve, and dropped when
+     * the call returns.
+     */
+    PER_RESOLUTION,
+    /**
+     * Single instance is shared by all resolutions in the same thread.
+     */
+    THREAD,
+    /**
+     * Single instance is shared by all resolutions in the same {@link YadicScope}. Such types
+     * cannot be resolved outside of a scope.
+     */
+    SCOPED,
+    /**
+     * Instances are taken from a bounded pool when available and returned to it by
+     * {@link YadicContainer#release(Object)} or by closing the {@link YadicScope} they were
+     * resolved in.
+     */
+    POOLED
 }
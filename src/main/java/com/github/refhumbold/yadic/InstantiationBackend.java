@@ -0,0 +1,6 @@
+package com.github.refhumbold.yadic;
+
+public enum InstantiationBackend
+{
+    REFLECTION, METHOD_HANDLES
+}
@@ -0,0 +1,22 @@
+package com.github.refhumbold.yadic;
+
+import java.util.function.Supplier;
+
+/**
+ * Lazy handle of a dependency. Constructor or setter parameter of type {@code Provider<T>} or
+ * {@code Supplier<T>} receives a handle, which resolves {@code T} on its first call of
+ * {@link #get()} and returns the same object afterwards.
+ * @param <T> type of dependency
+ */
+@FunctionalInterface
+public interface Provider<T>
+        extends Supplier<T>
+{
+    /**
+     * Get the dependency, resolving it on first call.
+     * @return dependency instance
+     * @throws YadicException if dependency cannot be resolved
+     */
+    @Override
+    T get();
+}
@@ -1,8 +1,19 @@
 package com.github.refhumbold.yadic;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import com.github.refhumbold.yadic.registry.DependencyRegistry;
 import com.github.refhumbold.yadic.resolver.TypesResolver;
+import com.github.refhumbold.yadic.resolver.exception.DependencyGraphException;
 
+/**
+ * Dependency injection container. Container is safe to use from multiple threads: resolving
+ * reads registrations without locking, while registrations are applied one at a time and become
+ * visible to all subsequent resolutions.
+ */
 public final class YadicContainer
         implements YadicResolver
 {
@@ -10,9 +21,18 @@ public final class YadicContainer
     private final TypesResolver resolver;
 
     public YadicContainer()
+    {
+        this(InstantiationBackend.METHOD_HANDLES);
+    }
+
+    /**
+     * Create container which invokes constructors and setters with given backend.
+     * @param backend instantiation backend
+     */
+    public YadicContainer(InstantiationBackend backend)
     {
         registry = new DependencyRegistry();
-        resolver = new TypesResolver(registry);
+        resolver = new TypesResolver(registry, backend);
     }
 
     /**
@@ -43,6 +63,75 @@ public final class YadicContainer
         return this;
     }
 
+    /**
+     * Register concrete type class in the container with pooled policy and given pool.
+     * @param type type class
+     * @param capacity maximal number of free instances kept in the pool
+     * @param reset action resetting instances before they return to the pool, or {@code null} if
+     * none is needed
+     * @return {@code this} for method chaining
+     */
+    public <T> YadicContainer registerPooled(
+            Class<T> type, int capacity, Consumer<? super T> reset)
+    {
+        registry.addPooledType(type, type, capacity, reset);
+        return this;
+    }
+
+    /**
+     * Register subtype class for its supertype with pooled policy and given pool.
+     * @param supertype supertype class
+     * @param subtype subtype class
+     * @param capacity maximal number of free instances kept in the pool
+     * @param reset action resetting instances before they return to the pool, or {@code null} if
+     * none is needed
+     * @return {@code this} for method chaining
+     */
+    public <T> YadicContainer registerPooled(
+            Class<T> supertype,
+            Class<? extends T> subtype,
+            int capacity,
+            Consumer<? super T> reset)
+    {
+        registry.addPooledType(supertype, subtype, capacity, reset);
+        return this;
+    }
+
+    /**
+     * Register concrete type class in the container as a singleton with limited time to live.
+     * Once the time passes, resolving still returns the current instance, while its replacement
+     * is constructed on given executor and swapped in when ready.
+     * @param type type class
+     * @param timeToLive time after which the instance is refreshed
+     * @param executor executor constructing replacements
+     * @return {@code this} for method chaining
+     */
+    public <T> YadicContainer registerRefreshed(
+            Class<T> type, Duration timeToLive, Executor executor)
+    {
+        registry.addRefreshedType(type, type, timeToLive, executor);
+        return this;
+    }
+
+    /**
+     * Register subtype class for its supertype as a singleton with limited time to live.
+     * @param supertype supertype class
+     * @param subtype subtype class
+     * @param timeToLive time after which the instance is refreshed
+     * @param executor executor constructing replacements
+     * @return {@code this} for method chaining
+     * @see #registerRefreshed(Class, Duration, Executor)
+     */
+    public <T> YadicContainer registerRefreshed(
+            Class<T> supertype,
+            Class<? extends T> subtype,
+            Duration timeToLive,
+            Executor executor)
+    {
+        registry.addRefreshedType(supertype, subtype, timeToLive, executor);
+        return this;
+    }
+
     /**
      * Register concrete instance of its type.
      * @param type type class
@@ -55,9 +144,97 @@ public final class YadicContainer
         return this;
     }
 
+    /**
+     * Finish registrations. Annotated types reachable from registered types are registered, so
+     * that their chains of types are looked up as fast as registered ones. Any later registration
+     * fails.
+     * @return {@code this} for method chaining
+     */
+    public YadicContainer freeze()
+    {
+        resolver.freeze();
+        return this;
+    }
+
+    /**
+     * Check that all registered types can be resolved, without constructing any instance. All
+     * problems are reported at once and valid types are prepared for fast resolving.
+     * @return {@code this} for method chaining
+     * @throws DependencyGraphException if any registered type or its dependency cannot be resolved
+     */
+    public YadicContainer validate()
+    {
+        resolver.validate(registry.getTypes());
+        return this;
+    }
+
+    /**
+     * Check that given types can be resolved, without constructing any instance. All problems are
+     * reported at once and valid types are prepared for fast resolving.
+     * @param roots type classes to check
+     * @return {@code this} for method chaining
+     * @throws DependencyGraphException if any given type or its dependency cannot be resolved
+     */
+    public YadicContainer warmUp(Class<?>... roots)
+    {
+        resolver.validate(List.of(roots));
+        return this;
+    }
+
+    /**
+     * Construct all registered singletons and singletons they depend on, after checking them as
+     * in {@link #validate()}. Each singleton is constructed on given executor as soon as
+     * singletons it depends on are ready, so independent ones are constructed in parallel.
+     * @param executor executor running constructions, e.g. a fork-join pool
+     * @return {@code this} for method chaining
+     * @throws DependencyGraphException if any registered type or its dependency cannot be resolved
+     */
+    public YadicContainer instantiateSingletons(Executor executor)
+    {
+        resolver.instantiateSingletons(registry.getTypes(), executor);
+        return this;
+    }
+
+    /**
+     * Return an instance of a type with pooled policy to its pool, so that later resolutions reuse
+     * it. Instance must not be used nor released again afterwards. Instances resolved in a scope
+     * are released when the scope closes, unless they are released explicitly before.
+     * @param instance instance resolved from this container
+     * @return {@code true} if instance is kept in the pool, {@code false} if it is dropped
+     */
+    public boolean release(Object instance)
+    {
+        return registry.release(instance);
+    }
+
+    /**
+     * Release all instances of types with thread policy held for the current thread, so that later
+     * resolutions in this thread construct new ones. Threads reused from a pool should call it
+     * after each task, since instances are otherwise held as long as the thread lives.
+     */
+    public void clearThreadInstances()
+    {
+        registry.clearThreadSlots();
+    }
+
+    /**
+     * Open a new scope, which holds its own instances of types with scoped policy.
+     * @return the new scope
+     */
+    public YadicScope openScope()
+    {
+        return new YadicScope(resolver, registry.openScope());
+    }
+
     @Override
     public <T> T resolve(Class<T> type)
     {
         return resolver.resolve(type);
     }
+
+    @Override
+    public <T> Optional<T> tryResolve(Class<T> type)
+    {
+        return resolver.tryResolve(type);
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.refhumbold.yadic;
 
+import java.util.Optional;
+
 public interface YadicResolver
 {
     /**
@@ -16,14 +18,24 @@ public interface YadicResolver
      * @return new instance, or {@code null} if type cannot be resolved.
      */
     default <T> T resolveOrNull(Class<T> type)
+    {
+        return tryResolve(type).orElse(null);
+    }
+
+    /**
+     * Resolve all dependencies and construct a new instance of given type.
+     * @param type type class
+     * @return new instance, or empty if type cannot be resolved.
+     */
+    default <T> Optional<T> tryResolve(Class<T> type)
     {
         try
         {
-            return resolve(type);
+            return Optional.of(resolve(type));
         }
         catch(YadicException ex)
         {
-            return null;
+            return Optional.empty();
         }
     }
 }
@@ -0,0 +1,50 @@
+package com.github.refhumbold.yadic;
+
+import java.util.Optional;
+import com.github.refhumbold.yadic.registry.ScopeSlots;
+import com.github.refhumbold.yadic.resolver.TypesResolver;
+
+/**
+ * Scope of instances of scoped types, e.g. for a single request. Types resolved in the scope
+ * share one instance of each scoped type, while other types are resolved as in the container.
+ * Scope can be used from multiple threads. Closing the scope releases all its instances at once.
+ */
+public final class YadicScope
+        implements YadicResolver, AutoCloseable
+{
+    private final TypesResolver resolver;
+    private final ScopeSlots slots;
+
+    YadicScope(TypesResolver resolver, ScopeSlots slots)
+    {
+        this.resolver = resolver;
+        this.slots = slots;
+    }
+
+    @Override
+    public <T> T resolve(Class<T> type)
+    {
+        return resolver.resolve(type, slots);
+    }
+
+    @Override
+    public <T> Optional<T> tryResolve(Class<T> type)
+    {
+        return resolver.tryResolve(type, slots);
+    }
+
+    public boolean isOpen()
+    {
+        return slots.isOpen();
+    }
+
+    /**
+     * Close this scope and release all instances of scoped types held in it. Resolving scoped
+     * types in a closed scope fails.
+     */
+    @Override
+    public void close()
+    {
+        slots.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.refhumbold.yadic.factory;
+
+/**
+ * Factory of a type generated by YADIC annotation processor. It invokes constructors and
+ * dependency setters of the type directly, without reflection.
+ * @param <T> type constructed by this factory
+ */
+public interface YadicFactory<T>
+{
+    /**
+     * Suffix appended to type name to get name of its generated factory.
+     */
+    String NAME_SUFFIX = "_YadicFactory";
+
+    /**
+     * Get direct call of public constructor with given parameter types.
+     * @param parameterTypes types of constructor parameters
+     * @return constructor call, or {@code null} if no such constructor
+     */
+    ConstructorCall<T> constructor(Class<?>... parameterTypes);
+
+    /**
+     * Get direct call of dependency setter with given name and parameter type.
+     * @param name name of setter
+     * @param parameterType type of setter parameter
+     * @return setter call, or {@code null} if no such setter
+     */
+    SetterCall<T> setter(String name, Class<?> parameterType);
+
+    @FunctionalInterface
+    interface ConstructorCall<T>
+    {
+        T construct(Object[] arguments)
+                throws Exception;
+    }
+
+    @FunctionalInterface
+    interface SetterCall<T>
+    {
+        void inject(T object, Object argument)
+                throws Exception;
+    }
+}
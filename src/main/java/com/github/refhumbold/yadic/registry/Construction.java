@@ -0,0 +1,28 @@
+package com.github.refhumbold.yadic.registry;
+
+/**
+ * Construction of an instance started in registry and finished by its caller, so that the
+ * caller can resolve dependencies of the instance in between. Instance of a singleton type is
+ * registered when its construction completes.
+ */
+public interface Construction<T>
+{
+    /**
+     * @return instance constructed before, which is used instead of constructing a new one, or
+     * {@code null} if the instance has to be constructed
+     */
+    T existing();
+
+    /**
+     * Finish construction with the constructed instance.
+     * @param instance constructed instance
+     * @return instance to use
+     */
+    T complete(T instance);
+
+    /**
+     * Abandon construction after it failed, so that next construction tries again.
+     * @param failure exception that caused the failure
+     */
+    void abandon(Throwable failure);
+}
@@ -1,32 +1,133 @@
 package com.github.refhumbold.yadic.registry;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import com.github.refhumbold.yadic.ConstructionPolicy;
 import com.github.refhumbold.yadic.registry.exception.RegistrationException;
 import com.github.refhumbold.yadic.registry.valuetypes.Instance;
 import com.github.refhumbold.yadic.registry.valuetypes.TypeConstruction;
+import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.ScopeException;
 import com.github.refhumbold.yadic.utils.TypeUtils;
 
 public class DependencyRegistry
 {
     private final TypesDictionary typesDictionary = new TypesDictionary();
     private final InstancesDictionary instancesDictionary = new InstancesDictionary();
+    private final Lock modificationLock = new ReentrantLock();
+    private volatile long version = 0L;
 
     public <T> void addType(Class<T> type, ConstructionPolicy policy)
     {
-        validateRegisteredType(type);
-        typesDictionary.insert(type, policy);
+        modify(() -> {
+            validateRegisteredType(type);
+            typesDictionary.insert(type, policy);
+        });
     }
 
     public <T> void addType(Class<T> type, Class<? extends T> subtype, ConstructionPolicy policy)
     {
-        validateRegisteredType(type);
-        typesDictionary.insert(type, subtype, policy);
+        modify(() -> {
+            validateRegisteredType(type);
+            typesDictionary.insert(type, subtype, policy);
+        });
+    }
+
+    /**
+     * Register pooled subtype for its supertype with a pool of given size. Each instance is reset
+     * before it returns to the pool. The pool is kept until the type is registered again.
+     * @param type type class, which owns the pool
+     * @param subtype concrete subtype class
+     * @param capacity maximal number of free instances kept in the pool
+     * @param reset action resetting released instances, or {@code null} if none is needed
+     */
+    public <T> void addPooledType(
+            Class<T> type, Class<? extends T> subtype, int capacity, Consumer<? super T> reset)
+    {
+        if(capacity < 1)
+            throw new RegistrationException(
+                    String.format("Pool of type %s has to hold at least one instance, got %d",
+                            subtype.getSimpleName(), capacity));
+
+        modify(() -> {
+            validateRegisteredType(type);
+
+            if(type == subtype)
+                typesDictionary.insert(type, ConstructionPolicy.POOLED);
+            else
+                typesDictionary.insert(type, subtype, ConstructionPolicy.POOLED);
+
+            typesDictionary.insertPool(type, subtype, capacity, reset);
+        });
+    }
+
+    /**
+     * Register singleton subtype for its supertype with limited time to live. When the time
+     * passes, a replacement of the instance is constructed on given executor by the refresher.
+     * @param type type class
+     * @param subtype subtype class
+     * @param timeToLive time after which the instance is refreshed
+     * @param executor executor running refreshes
+     */
+    public <T> void addRefreshedType(
+            Class<T> type, Class<? extends T> subtype, Duration timeToLive, Executor executor)
+    {
+        if(timeToLive.isNegative() || timeToLive.isZero())
+            throw new RegistrationException(
+                    String.format("Time to live of type %s has to be positive, got %s",
+                            type.getSimpleName(), timeToLive));
+
+        modify(() -> {
+            validateRegisteredType(type);
+
+            if(type == subtype)
+                typesDictionary.insert(type, ConstructionPolicy.SINGLETON);
+            else
+                typesDictionary.insert(type, subtype, ConstructionPolicy.SINGLETON);
+
+            typesDictionary.insertRefresh(type, timeToLive, executor);
+        });
     }
 
     public <T> void addInstance(Class<T> type, T instance)
     {
-        validateRegisteredInstance(type);
-        instancesDictionary.insert(type, instance);
+        modify(() -> {
+            validateRegisteredInstance(type);
+            instancesDictionary.insert(type, instance);
+        });
+    }
+
+    /**
+     * Counter of registrations, which changes whenever types graph is modified.
+     * @return current version of registrations
+     */
+    public long version()
+    {
+        return version;
+    }
+
+    /**
+     * Finish registrations, so that any later registration fails.
+     * @throws RegistrationException if registry is already frozen
+     */
+    public void freeze()
+    {
+        // registrations stay the same, so version is kept and compiled plans stay valid
+        lockUnfrozen(typesDictionary::freeze);
+    }
+
+    public boolean isFrozen()
+    {
+        return typesDictionary.isFrozen();
+    }
+
+    public Set<Class<?>> getTypes()
+    {
+        return typesDictionary.getTypes();
     }
 
     public <T> TypeConstruction<? extends T> findType(Class<T> type)
@@ -45,9 +146,110 @@ public class DependencyRegistry
         return typesDictionary.contains(type) || instancesDictionary.contains(type);
     }
 
-    public <T> void addSingleton(Class<T> type, T instance)
+    /**
+     * Register constructed instance of singleton type. When an instance has already been
+     * registered, that one is kept.
+     * @param type type class
+     * @param instance constructed instance
+     * @return instance registered for given type
+     */
+    public <T> T addSingleton(Class<T> type, T instance)
     {
-        typesDictionary.insertSingleton(type, instance);
+        return typesDictionary.insertSingleton(type, instance);
+    }
+
+    /**
+     * Start construction of an instance of given type. When multiple threads construct the same
+     * singleton at once, only one of them constructs it and others wait for its instance.
+     * Instances of per-resolution, thread and scoped types are held in slots of given resolution,
+     * current thread or given scope. Instances of other types are constructed without registering.
+     * @param type type class
+     * @param scope scope of resolution, or {@code null} if resolved outside of any scope
+     * @param resolution slots of current resolution, which are cleared when it finishes
+     * @return construction to finish once the instance is constructed
+     * @throws CircularDependenciesException if current thread already constructs the singleton
+     * @throws ScopeException if type is scoped and no open scope is given
+     */
+    public <T> Construction<T> startConstruction(
+            Class<T> type, ScopeSlots scope, ScopeSlots resolution)
+    {
+        return typesDictionary.startConstruction(type, scope, resolution);
+    }
+
+    /**
+     * Set action refreshing singletons whose time to live has passed. Refresher resolves given
+     * type with construction started by {@link #startRefresh(Class)}.
+     * @param refresher refreshing action
+     */
+    public void setRefresher(Consumer<Class<?>> refresher)
+    {
+        typesDictionary.setRefresher(refresher);
+    }
+
+    /**
+     * Start construction of replacement for a singleton whose time to live has passed.
+     * Completing the construction swaps the new instance in, while abandoning it keeps the
+     * current one.
+     * @param type type class
+     * @return construction to finish once the replacement is constructed
+     */
+    public <T> Construction<T> startRefresh(Class<T> type)
+    {
+        return typesDictionary.startRefresh(type);
+    }
+
+    /**
+     * Return given instance of a pooled type to its pool.
+     * @param instance instance resolved before
+     * @return {@code true} if instance is kept in the pool, {@code false} if it is dropped because
+     * the pool is full or its type is not pooled
+     */
+    public <T> boolean release(T instance)
+    {
+        return typesDictionary.release(instance);
+    }
+
+    /**
+     * Release all instances of types with thread policy held for the current thread.
+     */
+    public void clearThreadSlots()
+    {
+        typesDictionary.clearThreadSlots();
+    }
+
+    /**
+     * Open a new scope for instances of scoped types.
+     * @return slots of the new scope
+     */
+    public ScopeSlots openScope()
+    {
+        return typesDictionary.openScope();
+    }
+
+    // registrations are serialized, lookups read concurrent dictionaries without locking
+    private void modify(Runnable modification)
+    {
+        lockUnfrozen(() -> {
+            modification.run();
+            ++version;
+        });
+    }
+
+    private void lockUnfrozen(Runnable action)
+    {
+        modificationLock.lock();
+
+        try
+        {
+            if(typesDictionary.isFrozen())
+                throw new RegistrationException("Cannot modify frozen registry");
+
+            action.run();
+        }
+        finally
+        {
+            modificationLock.unlock();
+        }
     }
 
     private <T> void validateRegisteredType(Class<T> type)
@@ -0,0 +1,114 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import com.github.refhumbold.yadic.resolver.exception.ScopeException;
+
+/**
+ * Bounded pool of reusable instances of a pooled type. Free instances are kept in an array of
+ * slots, which threads take from and put into with compare-and-set, starting at a random slot so
+ * that concurrent threads rarely compete for the same one. Instances released to a full pool are
+ * dropped. Instances handed out in a scope are returned by the scope only if they are not released
+ * explicitly before it closes.
+ */
+final class InstancePool<T>
+{
+    static final int DEFAULT_CAPACITY = 16;
+    private final AtomicReferenceArray<T> free;
+    private final Consumer<? super T> reset;
+    // scopes which return instances handed out in them when closed
+    private final Map<T, ScopeSlots> scopesMap =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    InstancePool(int capacity, Consumer<? super T> reset)
+    {
+        free = new AtomicReferenceArray<>(capacity);
+        this.reset = reset;
+    }
+
+    /**
+     * @return free instance taken from the pool, or {@code null} if the pool is empty
+     */
+    T acquire()
+    {
+        int capacity = free.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+
+        for(int i = 0; i < capacity; ++i)
+        {
+            int index = (start + i) % capacity;
+            T instance = free.get(index);
+
+            if(instance != null && free.compareAndSet(index, instance, null))
+                return instance;
+        }
+
+        return null;
+    }
+
+    /**
+     * Hand out given instance in a scope, which returns it to the pool when closed.
+     * @param scope scope of resolution
+     * @param instance instance taken from the pool or constructed for it
+     */
+    void track(ScopeSlots scope, T instance)
+    {
+        scopesMap.put(instance, scope);
+
+        try
+        {
+            scope.track(this, instance);
+        }
+        catch(ScopeException e)
+        {
+            scopesMap.remove(instance, scope);
+            throw e;
+        }
+    }
+
+    /**
+     * Reset given instance and put it back to the pool. Instance handed out in a scope is no
+     * longer returned when the scope closes.
+     * @param instance instance taken from the pool or constructed for it
+     * @return {@code true} if instance is kept, {@code false} if the pool is full
+     */
+    boolean release(T instance)
+    {
+        scopesMap.remove(instance);
+        return put(instance);
+    }
+
+    /**
+     * Put back given instance handed out in a closed scope, unless it has been released before.
+     * @param scope closed scope
+     * @param instance instance handed out in the scope
+     */
+    void release(ScopeSlots scope, T instance)
+    {
+        if(scopesMap.remove(instance, scope))
+            put(instance);
+    }
+
+    private boolean put(T instance)
+    {
+        if(reset != null)
+            reset.accept(instance);
+
+        int capacity = free.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+
+        for(int i = 0; i < capacity; ++i)
+        {
+            int index = (start + i) % capacity;
+
+            if(free.get(index) == null && free.compareAndSet(index, null, instance))
+                return true;
+        }
+
+        return false;
+    }
+}
@@ -1,13 +1,13 @@
 package com.github.refhumbold.yadic.registry;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import com.github.refhumbold.yadic.registry.valuetypes.Instance;
 
 class InstancesDictionary
 {
-    private final Map<Class<?>, Instance<?>> instancesMap = new HashMap<>();
+    private final Map<Class<?>, Instance<?>> instancesMap = new ConcurrentHashMap<>();
 
     <T> void insert(Class<T> type, T instance)
     {
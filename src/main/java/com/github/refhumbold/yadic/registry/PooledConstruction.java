@@ -0,0 +1,36 @@
+package com.github.refhumbold.yadic.registry;
+
+/**
+ * Construction of an instance of a pooled type, which reuses a free instance from the pool when
+ * there is one. Instances handed out in a scope are released to the pool when the scope closes.
+ * @param pool pool of the type
+ * @param scope scope of resolution, or {@code null} if resolved outside of any scope
+ */
+record PooledConstruction<T>(InstancePool<T> pool, ScopeSlots scope)
+        implements Construction<T>
+{
+    @Override
+    public T existing()
+    {
+        T instance = pool.acquire();
+
+        if(instance != null && scope != null)
+            pool.track(scope, instance);
+
+        return instance;
+    }
+
+    @Override
+    public T complete(T instance)
+    {
+        if(scope != null)
+            pool.track(scope, instance);
+
+        return instance;
+    }
+
+    @Override
+    public void abandon(Throwable failure)
+    {
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Slot of a singleton with limited time to live. Once the time passes, the current instance is
+ * still returned, while a refresh constructing its replacement is scheduled on the executor. The
+ * replacement is swapped in when constructed, so only the first construction blocks callers.
+ */
+class RefreshedSingletonSlot<T>
+        extends SingletonSlot<T>
+{
+    private final long timeToLive;
+    private final Executor executor;
+    private final Runnable refresh;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long expiration;
+
+    RefreshedSingletonSlot(Duration timeToLive, Executor executor, Runnable refresh)
+    {
+        this.timeToLive = timeToLive.toNanos();
+        this.executor = executor;
+        this.refresh = refresh;
+    }
+
+    @Override
+    T read()
+    {
+        T object = super.read();
+
+        if(object != null && System.nanoTime() - expiration >= 0
+                && refreshing.compareAndSet(false, true))
+            try
+            {
+                executor.execute(refresh);
+            }
+            catch(RejectedExecutionException e)
+            {
+                // try again on next lookup
+                refreshing.set(false);
+            }
+
+        return object;
+    }
+
+    @Override
+    void hold(T object)
+    {
+        expiration = System.nanoTime() + timeToLive;
+        super.hold(object);
+    }
+
+    /**
+     * Start construction of replacement for the current instance.
+     * @return construction which swaps the replacement in when completed
+     */
+    Construction<T> beginRefresh()
+    {
+        return new Construction<>()
+        {
+            @Override
+            public T existing()
+            {
+                return null;
+            }
+
+            @Override
+            public T complete(T instance)
+            {
+                hold(instance);
+                refreshing.set(false);
+                return instance;
+            }
+
+            @Override
+            public void abandon(Throwable failure)
+            {
+                // keep current instance until the time passes again
+                expiration = System.nanoTime() + timeToLive;
+                refreshing.set(false);
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import com.github.refhumbold.yadic.resolver.exception.ScopeException;
+
+/**
+ * Instances of scoped types held by one scope, thread or resolution. Each scoped type owns a slot
+ * number given at its first construction, so an instance is looked up by index without locking.
+ * Writes are serialized, since instances are stored only once in each scope, and the first
+ * instance stored is kept.
+ */
+public final class ScopeSlots
+{
+    private volatile AtomicReferenceArray<Object> slots;
+    private volatile boolean filled = false;
+    // guarded by this: pooled instances handed out in this scope
+    private List<Pooled<?>> pooled = null;
+
+    ScopeSlots(int capacity)
+    {
+        slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public boolean isOpen()
+    {
+        return slots != null;
+    }
+
+    /**
+     * Release all instances held in this scope at once, keeping it open. Scope without any
+     * instance is not modified, so it can be cleared cheaply after each use.
+     */
+    public void clear()
+    {
+        if(filled)
+            synchronized(this)
+            {
+                AtomicReferenceArray<Object> current = open();
+
+                for(int i = 0; i < current.length(); ++i)
+                    current.set(i, null);
+
+                filled = false;
+            }
+    }
+
+    /**
+     * Release all instances held in this scope at once and return pooled instances handed out in
+     * it to their pools. Later lookups in this scope fail.
+     */
+    public void close()
+    {
+        List<Pooled<?>> released;
+
+        synchronized(this)
+        {
+            slots = null;
+            released = pooled;
+            pooled = null;
+        }
+
+        if(released != null)
+            for(Pooled<?> instance : released)
+                instance.release(this);
+    }
+
+    Object get(int slot)
+    {
+        AtomicReferenceArray<Object> current = open();
+
+        return slot < current.length() ? current.get(slot) : null;
+    }
+
+    synchronized Object put(int slot, Object instance)
+    {
+        AtomicReferenceArray<Object> current = open();
+
+        if(slot >= current.length())
+        {
+            AtomicReferenceArray<Object> grown =
+                    new AtomicReferenceArray<>(Math.max(slot + 1, 2 * current.length()));
+
+            for(int i = 0; i < current.length(); ++i)
+                grown.set(i, current.get(i));
+
+            slots = grown;
+            current = grown;
+        }
+
+        Object existing = current.get(slot);
+
+        if(existing != null)
+            return existing;
+
+        current.set(slot, instance);
+        filled = true;
+        return instance;
+    }
+
+    // closed scope holds no instances, so there is nothing to release
+    synchronized void clear(int slot)
+    {
+        AtomicReferenceArray<Object> current = slots;
+
+        if(current != null && slot < current.length())
+            current.set(slot, null);
+    }
+
+    synchronized <T> void track(InstancePool<T> pool, T instance)
+    {
+        open();
+
+        if(pooled == null)
+            pooled = new ArrayList<>();
+
+        pooled.add(new Pooled<>(pool, instance));
+    }
+
+    private AtomicReferenceArray<Object> open()
+    {
+        AtomicReferenceArray<Object> current = slots;
+
+        if(current == null)
+            throw new ScopeException("Cannot resolve scoped type in a closed scope");
+
+        return current;
+    }
+
+    private record Pooled<T>(InstancePool<T> pool, T instance)
+    {
+        void release(ScopeSlots scope)
+        {
+            pool.release(scope, instance);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.refhumbold.yadic.registry;
+
+/**
+ * Construction of an instance held in a slot of a scope. When the slot is filled by another
+ * construction in the meantime, that instance is kept and the new one is dropped.
+ * @param scope scope holding the instance
+ * @param slot slot number of the type
+ */
+record ScopedConstruction<T>(ScopeSlots scope, int slot)
+        implements Construction<T>
+{
+    @Override
+    @SuppressWarnings("unchecked")
+    public T existing()
+    {
+        return (T)scope.get(slot);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T complete(T instance)
+    {
+        return (T)scope.put(slot, instance);
+    }
+
+    @Override
+    public void abandon(Throwable failure)
+    {
+    }
+}
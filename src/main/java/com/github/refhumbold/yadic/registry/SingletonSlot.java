@@ -0,0 +1,202 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.registry.valuetypes.Instance;
+import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+
+class SingletonSlot<T>
+        implements Construction<T>
+{
+    // slot awaited by each thread, so that threads awaiting each other are detected
+    private static final Map<Thread, SingletonSlot<?>> awaitedSlots = new ConcurrentHashMap<>();
+    private final AtomicReference<CompletableFuture<T>> construction = new AtomicReference<>();
+    private volatile T instance;
+    private volatile Thread owner;
+
+    Instance<T> get()
+    {
+        return Instance.of(read());
+    }
+
+    /**
+     * Get instance held in this slot, or construct it. When multiple threads get an empty slot at
+     * the same time, only one of them constructs the instance and others wait for it.
+     * @param constructor constructor of instance
+     * @return instance held in this slot
+     */
+    T get(Supplier<? extends T> constructor)
+    {
+        Construction<T> started = begin();
+        T object = started.existing();
+
+        if(object != null)
+            return object;
+
+        try
+        {
+            return started.complete(constructor.get());
+        }
+        catch(RuntimeException | Error e)
+        {
+            started.abandon(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Start construction of instance held in this slot. When another thread constructs the
+     * instance at the same time, waits for it, unless that thread waits for current one. Instance
+     * that has been constructed before but is no longer held is constructed again.
+     * @return construction of existing instance, or this slot if current thread has to complete
+     * or abandon the construction
+     * @throws CircularDependenciesException if the instance is requested again during its
+     * construction, in the same thread or by threads awaiting each other
+     */
+    Construction<T> begin()
+    {
+        while(true)
+        {
+            T object = read();
+
+            if(object != null)
+                return new Existing<>(object);
+
+            CompletableFuture<T> current = construction.get();
+
+            // finished construction without instance means the instance has been released
+            if(current == null || current.isDone())
+            {
+                if(construction.compareAndSet(current, new CompletableFuture<>()))
+                {
+                    owner = Thread.currentThread();
+                    return this;
+                }
+            }
+            else if(owner == Thread.currentThread())
+                throw new CircularDependenciesException(
+                        "Singleton instance is requested again during its construction");
+            else
+                awaitOwner(current);
+        }
+    }
+
+    @Override
+    public T existing()
+    {
+        return null;
+    }
+
+    @Override
+    public T complete(T object)
+    {
+        CompletableFuture<T> created = construction.get();
+
+        hold(object);
+        owner = null;
+        created.complete(object);
+        return object;
+    }
+
+    @Override
+    public void abandon(Throwable failure)
+    {
+        CompletableFuture<T> created = construction.get();
+
+        // let next caller try again instead of remembering the failure
+        owner = null;
+        construction.set(null);
+        created.completeExceptionally(failure);
+    }
+
+    /**
+     * @return instance held in this slot, or {@code null} if none
+     */
+    T read()
+    {
+        return instance;
+    }
+
+    void hold(T object)
+    {
+        instance = object;
+    }
+
+    private void awaitOwner(CompletableFuture<T> current)
+    {
+        Thread thread = Thread.currentThread();
+
+        awaitedSlots.put(thread, this);
+
+        try
+        {
+            if(isOwnerAwaiting(thread))
+                throw new CircularDependenciesException(
+                        "Singleton instances are requested by threads constructing each other");
+
+            await(current);
+        }
+        finally
+        {
+            awaitedSlots.remove(thread);
+        }
+    }
+
+    // follows owners of awaited slots, each thread awaits at most one slot at a time
+    private boolean isOwnerAwaiting(Thread thread)
+    {
+        SingletonSlot<?> slot = this;
+
+        for(int i = 0; slot != null && i <= awaitedSlots.size(); ++i)
+        {
+            Thread slotOwner = slot.owner;
+
+            if(slotOwner == null)
+                return false;
+
+            if(slotOwner == thread)
+                return true;
+
+            slot = awaitedSlots.get(slotOwner);
+        }
+
+        return false;
+    }
+
+    private T await(CompletableFuture<T> current)
+    {
+        try
+        {
+            return current.join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+
+            if(e.getCause() instanceof Error cause)
+                throw cause;
+
+            throw e;
+        }
+    }
+
+    private record Existing<T>(T existing)
+            implements Construction<T>
+    {
+        @Override
+        public T complete(T object)
+        {
+            return existing;
+        }
+
+        @Override
+        public void abandon(Throwable failure)
+        {
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * Slot of a singleton held through a soft reference, so that garbage collector can release it
+ * under memory pressure. Released instance is constructed again by the next resolution.
+ */
+class SoftSingletonSlot<T>
+        extends SingletonSlot<T>
+{
+    private volatile SoftReference<T> reference;
+
+    @Override
+    T read()
+    {
+        SoftReference<T> current = reference;
+
+        return current == null ? null : current.get();
+    }
+
+    @Override
+    void hold(T object)
+    {
+        reference = new SoftReference<>(object);
+    }
+}
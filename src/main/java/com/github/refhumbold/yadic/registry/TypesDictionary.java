@@ -1,51 +1,84 @@
 package com.github.refhumbold.yadic.registry;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import com.github.refhumbold.yadic.ConstructionPolicy;
-import com.github.refhumbold.yadic.annotation.YadicRegister;
-import com.github.refhumbold.yadic.annotation.YadicRegisterSelf;
+import com.github.refhumbold.yadic.YadicException;
 import com.github.refhumbold.yadic.registry.exception.AbstractTypeException;
 import com.github.refhumbold.yadic.registry.exception.AnnotatedTypeRegistrationException;
 import com.github.refhumbold.yadic.registry.exception.MixingPoliciesException;
-import com.github.refhumbold.yadic.registry.exception.NotDerivedTypeException;
 import com.github.refhumbold.yadic.registry.valuetypes.Instance;
 import com.github.refhumbold.yadic.registry.valuetypes.TypeConstruction;
 import com.github.refhumbold.yadic.resolver.exception.MissingDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.ScopeException;
+import com.github.refhumbold.yadic.utils.TypeMetadata;
 import com.github.refhumbold.yadic.utils.TypeUtils;
 
 class TypesDictionary
 {
-    private final Map<Class<?>, TypeConstruction<?>> typesMap = new HashMap<>();
-    private final Map<Class<?>, Instance<?>> singletonsMap = new HashMap<>();
-
-    @SuppressWarnings("unchecked")
-    <T> void insert(Class<T> type, ConstructionPolicy policy)
+    private static final Construction<Object> UNREGISTERED = new Construction<>()
     {
-        validateAnnotation(type);
-
-        if(type.isAnnotationPresent(YadicRegister.class))
+        @Override
+        public Object existing()
         {
-            YadicRegister annotation = type.getAnnotation(YadicRegister.class);
-
-            doInsert(type, new TypeConstruction<>((Class<? extends T>)annotation.value(),
-                    annotation.policy()));
+            return null;
         }
-        else if(type.isAnnotationPresent(YadicRegisterSelf.class))
-        {
-            YadicRegisterSelf annotation = type.getAnnotation(YadicRegisterSelf.class);
 
-            doInsert(type, new TypeConstruction<>(type, annotation.policy()));
-        }
-        else
+        @Override
+        public Object complete(Object instance)
         {
-            if(TypeUtils.isAbstractReferenceType(type))
-                throw new AbstractTypeException(
-                        String.format("Cannot register abstract type %s", type.getTypeName()));
+            return instance;
+        }
 
-            doInsert(type, new TypeConstruction<>(type, policy));
+        @Override
+        public void abandon(Throwable failure)
+        {
         }
+    };
+    private final Map<Class<?>, TypeConstruction<?>> typesMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, SingletonSlot<?>> singletonsMap = new ConcurrentHashMap<>();
+    // slot numbers of per-resolution, thread and scoped types in slots of each resolution, thread
+    // or scope
+    private final Map<Class<?>, Integer> scopeSlotsMap = new ConcurrentHashMap<>();
+    private final AtomicInteger slotsCount = new AtomicInteger();
+    // pools of pooled registrations, and pools of constructed classes to release instances to
+    private final Map<Class<?>, InstancePool<?>> poolsMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, InstancePool<?>> releasePoolsMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Refresh> refreshesMap = new ConcurrentHashMap<>();
+    private volatile Consumer<Class<?>> refresher = type -> {
+    };
+    // slots of each live thread, so that slots of registrations replaced later can be released
+    private final Set<ScopeSlots> allThreadSlots =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final ThreadLocal<ScopeSlots> threadSlots = ThreadLocal.withInitial(() -> {
+        ScopeSlots slots = new ScopeSlots(slotsCount.get());
+
+        allThreadSlots.add(slots);
+        return slots;
+    });
+    private final Map<Class<?>, TypeConstruction<?>> chainsMap = new ConcurrentHashMap<>();
+    // guarded by chainsLock: types in chain of each key, and keys whose chain contains each type
+    private final Map<Class<?>, List<Class<?>>> chainMembersMap = new HashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> chainKeysMap = new HashMap<>();
+    private final Object chainsLock = new Object();
+    private volatile boolean frozen = false;
+
+    <T> void insert(Class<T> type, ConstructionPolicy policy)
+    {
+        doInsert(type, createMapping(type, policy));
     }
 
     <T> void insert(Class<T> type, Class<? extends T> subtype, ConstructionPolicy policy)
@@ -60,58 +93,149 @@ class TypesDictionary
 
     boolean contains(Class<?> type)
     {
-        try
-        {
-            validateAnnotation(type);
-        }
-        catch(NotDerivedTypeException | AbstractTypeException e)
-        {
-            return false;
-        }
+        TypeMetadata metadata = TypeMetadata.of(type);
 
-        return TypeUtils.isAnnotatedType(type) || typesMap.containsKey(type);
+        return metadata.isValid() && (metadata.isAnnotated() || typesMap.containsKey(type));
     }
 
+    /**
+     * Find the end of registered chain of types for given type. Ends of valid chains are stored
+     * when types are inserted, so for registered types this is a single lookup.
+     * @param type type class
+     * @return mapping to the end of chain
+     */
+    @SuppressWarnings("unchecked")
     <T> TypeConstruction<? extends T> find(Class<T> type)
     {
-        TypeConstruction<? extends T> mapping = get(type);
-        ConstructionPolicy desiredPolicy = mapping.policy();
-        Class<?> supertype = type;
+        TypeConstruction<?> chain = chainsMap.get(type);
 
-        while(TypeUtils.isAbstractReferenceType(mapping.type())
-                || contains(mapping.type()) && !mapping.type().equals(supertype))
-        {
-            supertype = mapping.type();
-            mapping = get(mapping.type());
+        return chain != null ? (TypeConstruction<? extends T>)chain : walkChain(type, null);
+    }
 
-            if(mapping.policy() != desiredPolicy)
-                throw new MixingPoliciesException(String.format(
-                        "Registered classes chain contains two different construction policies: expected %s, was %s",
-                        desiredPolicy.toString(), mapping.policy().toString()));
-        }
+    void freeze()
+    {
+        frozen = true;
+    }
 
-        return mapping;
+    boolean isFrozen()
+    {
+        return frozen;
+    }
+
+    Set<Class<?>> getTypes()
+    {
+        return Collections.unmodifiableSet(typesMap.keySet());
     }
 
-    <T> void insertSingleton(Class<T> type, T instance)
+    <T> T insertSingleton(Class<T> type, T instance)
     {
         TypeConstruction<?> mapping = typesMap.get(type);
 
         if(mapping != null && Objects.equals(mapping.type(), instance.getClass())
-                && mapping.policy() == ConstructionPolicy.SINGLETON)
-            singletonsMap.putIfAbsent(type, Instance.of(instance));
+                && (mapping.policy() == ConstructionPolicy.SINGLETON
+                || mapping.policy() == ConstructionPolicy.SOFT_SINGLETON))
+            return getSlot(type, mapping.policy()).get(() -> instance);
+
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Construction<T> startConstruction(
+            Class<T> type, ScopeSlots scope, ScopeSlots resolution)
+    {
+        insertAnnotated(type);
+
+        TypeConstruction<?> mapping = typesMap.get(type);
+
+        if(mapping == null || !holdsInstance(type, mapping))
+            return (Construction<T>)UNREGISTERED;
+
+        return switch(mapping.policy())
+        {
+            case SINGLETON, SOFT_SINGLETON -> getSlot(type, mapping.policy()).begin();
+            case PER_RESOLUTION -> resolution == null
+                                   ? (Construction<T>)UNREGISTERED
+                                   : new ScopedConstruction<>(resolution, getScopeSlot(type));
+            case THREAD -> new ScopedConstruction<>(threadSlots.get(), getScopeSlot(type));
+            case POOLED ->
+                    new PooledConstruction<>(getPool(type, (Class<T>)mapping.type()), scope);
+            case SCOPED ->
+            {
+                if(scope == null)
+                    throw new ScopeException(
+                            String.format("Scoped type %s cannot be resolved outside of a scope",
+                                    type.getTypeName()));
+
+                yield new ScopedConstruction<>(scope, getScopeSlot(type));
+            }
+            default -> (Construction<T>)UNREGISTERED;
+        };
     }
 
+    <T> void insertPool(
+            Class<T> type, Class<? extends T> subtype, int capacity, Consumer<? super T> reset)
+    {
+        InstancePool<T> pool = new InstancePool<>(capacity, reset);
+
+        poolsMap.put(type, pool);
+        releasePoolsMap.put(subtype, pool);
+    }
+
+    void insertRefresh(Class<?> type, Duration timeToLive, Executor executor)
+    {
+        refreshesMap.put(type, new Refresh(timeToLive, executor));
+        // slot created meanwhile without refreshing is replaced on next lookup
+        singletonsMap.remove(type);
+    }
+
+    void setRefresher(Consumer<Class<?>> refresher)
+    {
+        this.refresher = refresher;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Construction<T> startRefresh(Class<T> type)
+    {
+        // slot replaced by a registration in the meantime does not take the instance
+        return singletonsMap.get(type) instanceof RefreshedSingletonSlot<?> slot
+               ? ((RefreshedSingletonSlot<T>)slot).beginRefresh()
+               : (Construction<T>)UNREGISTERED;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> boolean release(T instance)
+    {
+        InstancePool<T> pool = (InstancePool<T>)releasePoolsMap.get(instance.getClass());
+
+        return pool != null && pool.release(instance);
+    }
+
+    void clearThreadSlots()
+    {
+        ScopeSlots slots = threadSlots.get();
+
+        threadSlots.remove();
+        allThreadSlots.remove(slots);
+        slots.clear();
+    }
+
+    ScopeSlots openScope()
+    {
+        return new ScopeSlots(slotsCount.get());
+    }
+
+    @SuppressWarnings("unchecked")
     <T> Instance<T> getSingleton(Class<T> type)
     {
-        return Instance.cast(singletonsMap.get(type));
+        SingletonSlot<T> slot = (SingletonSlot<T>)singletonsMap.get(type);
+
+        return slot == null ? Instance.none() : slot.get();
     }
 
     @SuppressWarnings("unchecked")
     private <T> TypeConstruction<? extends T> get(Class<T> type)
     {
-        if(TypeUtils.isAnnotatedType(type) && !typesMap.containsKey(type))
-            insert(type, null);
+        insertAnnotated(type);
 
         TypeConstruction<? extends T> mapping = (TypeConstruction<? extends T>)typesMap.get(type);
 
@@ -126,40 +250,193 @@ class TypesDictionary
         return new TypeConstruction<>(type, ConstructionPolicy.CONSTRUCTION);
     }
 
+    private void insertAnnotated(Class<?> type)
+    {
+        if(TypeUtils.isAnnotatedType(type) && !typesMap.containsKey(type))
+        {
+            TypeConstruction<?> mapping = createMapping(type, null);
+
+            synchronized(chainsLock)
+            {
+                if(typesMap.putIfAbsent(type, mapping) == null)
+                    updateChains(type);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeConstruction<? extends T> createMapping(
+            Class<T> type, ConstructionPolicy policy)
+    {
+        TypeMetadata metadata = TypeMetadata.of(type);
+
+        metadata.validate();
+
+        if(metadata.isAnnotated())
+            return new TypeConstruction<>((Class<? extends T>)metadata.annotatedSubtype(),
+                    metadata.annotatedPolicy());
+
+        if(metadata.isAbstract())
+            throw new AbstractTypeException(
+                    String.format("Cannot register abstract type %s", type.getTypeName()));
+
+        return new TypeConstruction<>(type, policy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SingletonSlot<T> getSlot(Class<T> type, ConstructionPolicy policy)
+    {
+        return (SingletonSlot<T>)singletonsMap.computeIfAbsent(type, k -> {
+            if(policy == ConstructionPolicy.SOFT_SINGLETON)
+                return new SoftSingletonSlot<>();
+
+            Refresh refresh = refreshesMap.get(type);
+
+            if(refresh != null)
+                return new RefreshedSingletonSlot<>(refresh.timeToLive(), refresh.executor(),
+                        () -> refresher.accept(type));
+
+            return new SingletonSlot<>();
+        });
+    }
+
+    // pool of pooled class registered for itself is shared with all aliases of the class
+    @SuppressWarnings("unchecked")
+    private <T> InstancePool<T> getPool(Class<?> type, Class<T> constructed)
+    {
+        TypeConstruction<?> own = typesMap.get(constructed);
+        Class<?> owner = own != null && own.type() == constructed
+                                 && own.policy() == ConstructionPolicy.POOLED
+                         ? constructed
+                         : type;
+
+        return (InstancePool<T>)poolsMap.computeIfAbsent(owner, k -> {
+            InstancePool<T> pool = new InstancePool<>(InstancePool.DEFAULT_CAPACITY, null);
+
+            releasePoolsMap.put(constructed, pool);
+            return pool;
+        });
+    }
+
+    private int getScopeSlot(Class<?> type)
+    {
+        return scopeSlotsMap.computeIfAbsent(type, k -> slotsCount.getAndIncrement());
+    }
+
+    // instance is held by the registration which maps directly to the constructed class
+    private boolean holdsInstance(Class<?> type, TypeConstruction<?> mapping)
+    {
+        return !TypeUtils.isAbstractReferenceType(mapping.type())
+                && mapping.type() == find(type).type();
+    }
+
+    private boolean isChainEnd(Class<?> supertype, Class<?> type)
+    {
+        return !TypeUtils.isAbstractReferenceType(type)
+                && (type.equals(supertype) || !contains(type));
+    }
+
     private <T> void doInsert(Class<T> type, TypeConstruction<? extends T> mapping)
     {
-        typesMap.put(type, mapping);
-        singletonsMap.remove(type);
+        synchronized(chainsLock)
+        {
+            typesMap.put(type, mapping);
+            singletonsMap.remove(type);
+            removeScopeSlot(type);
+            removePool(type);
+            refreshesMap.remove(type);
+            updateChains(type);
+        }
+    }
+
+    // instances in slot of replaced registration are never looked up again
+    private void removeScopeSlot(Class<?> type)
+    {
+        Integer slot = scopeSlotsMap.remove(type);
+
+        if(slot != null)
+            synchronized(allThreadSlots)
+            {
+                for(ScopeSlots slots : allThreadSlots)
+                    slots.clear(slot);
+            }
     }
 
-    private void validateAnnotation(Class<?> type)
+    private void removePool(Class<?> type)
     {
-        if(type.isAnnotationPresent(YadicRegister.class))
+        InstancePool<?> pool = poolsMap.remove(type);
+
+        if(pool != null)
+            releasePoolsMap.values().remove(pool);
+    }
+
+    // recompute chains of given type and of all keys whose chain goes through it
+    private void updateChains(Class<?> type)
+    {
+        Set<Class<?>> keys = new LinkedHashSet<>(chainKeysMap.getOrDefault(type, Set.of()));
+
+        keys.add(type);
+
+        for(Class<?> key : keys)
+            if(typesMap.containsKey(key))
+                updateChain(key);
+    }
+
+    private void updateChain(Class<?> key)
+    {
+        List<Class<?>> members = new ArrayList<>();
+
+        for(Class<?> member : chainMembersMap.getOrDefault(key, List.of()))
         {
-            YadicRegister annotation = type.getAnnotation(YadicRegister.class);
-            Class<?> subtype = annotation.value();
-
-            if(!type.isAssignableFrom(subtype))
-                throw new NotDerivedTypeException(
-                        String.format("Type %s registered via %s is not derived type of %s",
-                                subtype.getTypeName(),
-                                TypeUtils.getAnnotationName(YadicRegister.class),
-                                type.getTypeName()));
-
-            if(TypeUtils.isAbstractReferenceType(subtype))
-                throw new AbstractTypeException(
-                        String.format("Type %s registered via %s in %s is abstract",
-                                subtype.getTypeName(),
-                                TypeUtils.getAnnotationName(YadicRegister.class),
-                                type.getTypeName()));
+            Set<Class<?>> keys = chainKeysMap.get(member);
+
+            if(keys != null)
+                keys.remove(key);
+        }
+
+        try
+        {
+            chainsMap.put(key, walkChain(key, members));
         }
-        else if(type.isAnnotationPresent(YadicRegisterSelf.class))
+        catch(YadicException e)
+        {
+            // invalid chain is walked again on each lookup, so that it is reported
+            chainsMap.remove(key);
+        }
+
+        chainMembersMap.put(key, members);
+
+        for(Class<?> member : members)
+            chainKeysMap.computeIfAbsent(member, k -> new HashSet<>()).add(key);
+    }
+
+    private <T> TypeConstruction<? extends T> walkChain(Class<T> type, List<Class<?>> members)
+    {
+        TypeConstruction<? extends T> mapping = get(type);
+        ConstructionPolicy desiredPolicy = mapping.policy();
+        Class<?> supertype = type;
+
+        if(members != null)
+            members.add(mapping.type());
+
+        while(!isChainEnd(supertype, mapping.type()))
         {
-            if(TypeUtils.isAbstractReferenceType(type))
-                throw new AbstractTypeException(
-                        String.format("Abstract type %s cannot be annotated with %s",
-                                type.getTypeName(),
-                                TypeUtils.getAnnotationName(YadicRegisterSelf.class)));
+            supertype = mapping.type();
+            mapping = get(mapping.type());
+
+            if(members != null)
+                members.add(mapping.type());
+
+            if(mapping.policy() != desiredPolicy)
+                throw new MixingPoliciesException(String.format(
+                        "Registered classes chain contains two different construction policies: expected %s, was %s",
+                        desiredPolicy.toString(), mapping.policy().toString()));
         }
+
+        return mapping;
+    }
+
+    private record Refresh(Duration timeToLive, Executor executor)
+    {
     }
 }
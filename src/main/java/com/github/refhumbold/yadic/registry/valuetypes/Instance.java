@@ -6,10 +6,12 @@ import java.util.function.Supplier;
 
 public final class Instance<T>
 {
+    private static final Instance<?> NONE =
+            new Instance<>(null, () -> new NoSuchElementException("No instance found"));
     private final T instance;
-    private final RuntimeException exception;
+    private final Supplier<? extends RuntimeException> exception;
 
-    private Instance(T instance, RuntimeException exception)
+    private Instance(T instance, Supplier<? extends RuntimeException> exception)
     {
         this.instance = instance;
         this.exception = exception;
@@ -25,12 +27,39 @@ public final class Instance<T>
         return instance == null ? none(exception) : new Instance<>(instance, null);
     }
 
+    /**
+     * Create instance, or no instance with exception created only if it is extracted.
+     * @param instance object or {@code null}
+     * @param exception supplier of exception thrown on extracting no instance
+     * @return instance of given object
+     */
+    public static <T> Instance<T> of(T instance, Supplier<? extends RuntimeException> exception)
+    {
+        return instance == null ? none(exception) : new Instance<>(instance, null);
+    }
+
+    /**
+     * @return shared empty instance
+     */
+    @SuppressWarnings("unchecked")
     public static <T> Instance<T> none()
     {
-        return none(new NoSuchElementException("No instance found"));
+        return (Instance<T>)NONE;
     }
 
     public static <T> Instance<T> none(RuntimeException exception)
+    {
+        Objects.requireNonNull(exception);
+        return new Instance<>(null, () -> exception);
+    }
+
+    /**
+     * Create no instance with exception created only if it is extracted, so that no message is
+     * built and no stack trace is filled when another instance is used instead.
+     * @param exception supplier of exception thrown on extracting
+     * @return empty instance
+     */
+    public static <T> Instance<T> none(Supplier<? extends RuntimeException> exception)
     {
         return new Instance<>(null, Objects.requireNonNull(exception));
     }
@@ -53,7 +82,10 @@ public final class Instance<T>
 
     public T extract()
     {
-        return extract(() -> { throw exception; });
+        if(exists())
+            return instance;
+
+        throw exception.get();
     }
 
     public T extract(Supplier<T> supplier)
@@ -0,0 +1,51 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instantiator preparing each invoker once for all containers. Invokers are kept with classes
+ * they are invoked on, so that they are dropped together with their class loader.
+ */
+class CachingInstantiator
+        implements Instantiator
+{
+    static final CachingInstantiator REFLECTION =
+            new CachingInstantiator(new FactoryInstantiator(new ReflectionInstantiator()));
+    static final CachingInstantiator METHOD_HANDLES =
+            new CachingInstantiator(new FactoryInstantiator(new MethodHandleInstantiator()));
+    private final Instantiator instantiator;
+    private final ClassValue<Map<Member, Object>> invokers = new ClassValue<>()
+    {
+        @Override
+        protected Map<Member, Object> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private CachingInstantiator(Instantiator instantiator)
+    {
+        this.instantiator = instantiator;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ConstructorInvoker<T> constructor(Constructor<T> constructor)
+    {
+        return (ConstructorInvoker<T>)invokers.get(constructor.getDeclaringClass())
+                                              .computeIfAbsent(constructor,
+                                                      c -> instantiator.constructor(constructor));
+    }
+
+    @Override
+    public <T> SetterInvoker setter(Class<T> type, Method setter)
+    {
+        return (SetterInvoker)invokers.get(type)
+                                      .computeIfAbsent(setter,
+                                              s -> instantiator.setter(type, setter));
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.refhumbold.yadic.resolver;
+
+@FunctionalInterface
+interface ConstructorInvoker<T>
+{
+    T invoke(Object[] arguments)
+            throws Exception;
+}
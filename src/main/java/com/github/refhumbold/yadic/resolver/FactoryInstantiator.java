@@ -0,0 +1,64 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import com.github.refhumbold.yadic.factory.YadicFactory;
+
+class FactoryInstantiator
+        implements Instantiator
+{
+    private final Instantiator fallback;
+
+    FactoryInstantiator(Instantiator fallback)
+    {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public <T> ConstructorInvoker<T> constructor(Constructor<T> constructor)
+    {
+        YadicFactory<T> factory = GeneratedFactories.find(constructor.getDeclaringClass());
+        YadicFactory.ConstructorCall<T> call =
+                factory == null ? null : factory.constructor(constructor.getParameterTypes());
+
+        if(call == null)
+            return fallback.constructor(constructor);
+
+        // anything thrown is wrapped as in reflection, including errors
+        return arguments -> {
+            try
+            {
+                return call.construct(arguments);
+            }
+            catch(Throwable t)
+            {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+
+    @Override
+    public <T> SetterInvoker setter(Class<T> type, Method setter)
+    {
+        YadicFactory<T> factory = GeneratedFactories.find(type);
+        YadicFactory.SetterCall<T> call = factory == null
+                                          ? null
+                                          : factory.setter(setter.getName(),
+                                                  setter.getParameterTypes()[0]);
+
+        if(call == null)
+            return fallback.setter(type, setter);
+
+        return (object, argument) -> {
+            try
+            {
+                call.inject(type.cast(object), argument);
+            }
+            catch(Throwable t)
+            {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+}
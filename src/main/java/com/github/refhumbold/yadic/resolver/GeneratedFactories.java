@@ -0,0 +1,60 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.util.Optional;
+import com.github.refhumbold.yadic.factory.YadicFactory;
+
+final class GeneratedFactories
+{
+    private static final ClassValue<Optional<YadicFactory<?>>> FACTORIES = new ClassValue<>()
+    {
+        @Override
+        protected Optional<YadicFactory<?>> computeValue(Class<?> type)
+        {
+            return Optional.ofNullable(load(type));
+        }
+    };
+
+    private GeneratedFactories()
+    {
+    }
+
+    /**
+     * Find factory generated for given type by YADIC annotation processor. Each type is looked up
+     * only once.
+     * @param type type class
+     * @return generated factory, or {@code null} if not present
+     */
+    @SuppressWarnings("unchecked")
+    static <T> YadicFactory<T> find(Class<T> type)
+    {
+        return (YadicFactory<T>)FACTORIES.get(type).orElse(null);
+    }
+
+    // generated factory is a top-level class in the package of its type, named after binary name
+    // of the type, e.g. factory of a.b.Outer.Inner is a.b.Outer$Inner_YadicFactory
+    static String getFactoryName(Class<?> type)
+    {
+        return type.getName() + YadicFactory.NAME_SUFFIX;
+    }
+
+    private static YadicFactory<?> load(Class<?> type)
+    {
+        if(type.getClassLoader() == null || type.isPrimitive() || type.isArray())
+            return null;
+
+        try
+        {
+            Class<?> factoryClass =
+                    Class.forName(getFactoryName(type), true, type.getClassLoader());
+
+            if(!YadicFactory.class.isAssignableFrom(factoryClass))
+                return null;
+
+            return (YadicFactory<?>)factoryClass.getConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+}
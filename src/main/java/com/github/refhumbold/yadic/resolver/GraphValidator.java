@@ -0,0 +1,578 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicException;
+import com.github.refhumbold.yadic.registry.valuetypes.Instance;
+import com.github.refhumbold.yadic.registry.valuetypes.TypeConstruction;
+import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.MissingDependenciesException;
+
+/**
+ * Walks dependency graph without constructing any instance. Constructors are chosen the same way
+ * resolving would choose them, assuming that constructors themselves do not fail. Resolution
+ * plans of valid types are compiled on the way. The graph is walked with an explicit stack of
+ * frames, so that its depth does not grow the thread stack. Problems are only created when they
+ * are reported, checking validity alone does not allocate any exception.
+ */
+class GraphValidator
+{
+    private final TypesResolver resolver;
+    private final long version;
+    private final ResolutionContext context;
+    private final boolean reporting;
+    private final boolean scopeOpen;
+    private final Set<Class<?>> pending = new HashSet<>();
+    private final Map<Class<?>, Boolean> verdicts = new HashMap<>();
+    private final Map<Class<?>, YadicException> problems = new LinkedHashMap<>();
+    private final Set<Set<Class<?>>> cycles = new HashSet<>();
+    private final Queue<Class<?>> lazyTargets = new ArrayDeque<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    /**
+     * Create validator reporting problems of types.
+     * @param resolver resolver
+     */
+    GraphValidator(TypesResolver resolver)
+    {
+        this(resolver, new ResolutionContext(), true, true);
+    }
+
+    /**
+     * Create validator checking only whether types can be resolved.
+     * @param resolver resolver
+     * @param scopeOpen whether types are resolved in a scope, otherwise scoped types are invalid
+     */
+    GraphValidator(TypesResolver resolver, boolean scopeOpen)
+    {
+        this(resolver, new ResolutionContext(), false, scopeOpen);
+    }
+
+    /**
+     * Create validator continuing given resolution path, so that cycles closed by types being
+     * resolved in it are detected. Verdicts of types are kept until registrations change.
+     * @param resolver resolver
+     * @param context current resolution path
+     */
+    GraphValidator(TypesResolver resolver, ResolutionContext context)
+    {
+        this(resolver, context, false, true);
+    }
+
+    private GraphValidator(
+            TypesResolver resolver,
+            ResolutionContext context,
+            boolean reporting,
+            boolean scopeOpen)
+    {
+        this.resolver = resolver;
+        this.context = context;
+        this.reporting = reporting;
+        this.scopeOpen = scopeOpen;
+        version = resolver.registry.version();
+    }
+
+    /**
+     * @return {@code true} if registrations did not change since this validator was created
+     */
+    boolean isCurrent()
+    {
+        return version == resolver.registry.version();
+    }
+
+    /**
+     * Validate given types and all their dependencies.
+     * @param roots type classes to start from
+     * @return problems found, at most one for each type
+     */
+    List<YadicException> validate(Collection<Class<?>> roots)
+    {
+        for(Class<?> root : roots)
+            validate(root);
+
+        while(!lazyTargets.isEmpty())
+            validate(lazyTargets.poll());
+
+        return List.copyOf(problems.values());
+    }
+
+    /**
+     * Check that given type can be constructed. Dependencies injected lazily are not checked.
+     * @param type type class
+     * @return {@code true} if type can be constructed, otherwise {@code false}
+     */
+    boolean isValid(Class<?> type)
+    {
+        return validate(type).valid();
+    }
+
+    /**
+     * Choose the constructor that resolving given type in current path would use, without
+     * constructing any instance. Plan of the type is compiled if the choice does not depend on the
+     * path. Dependencies injected lazily are not checked.
+     * @param type type class, already present in the path
+     * @param subtype type class constructed for type
+     * @return chosen constructor, or {@code null} if no constructor can be used
+     */
+    @SuppressWarnings("unchecked")
+    <T, S extends T> Constructor<S> selectConstructor(Class<T> type, Class<S> subtype)
+    {
+        Frame frame = new Frame(type, subtype);
+
+        frames.push(frame);
+        run();
+        return (Constructor<S>)frame.selected;
+    }
+
+    private Outcome validate(Class<?> type)
+    {
+        Outcome outcome = enter(type);
+
+        return outcome != null ? outcome : run();
+    }
+
+    // outcome of type checked before or being checked, or null when its frame is pushed
+    private Outcome enter(Class<?> type)
+    {
+        Boolean verdict = verdicts.get(type);
+
+        if(verdict != null)
+            return Outcome.of(verdict, false);
+
+        // type reached again through setters is checked by its first visit
+        if(!pending.add(type))
+            return Outcome.of(true, true);
+
+        frames.push(new Frame(type, null));
+        return null;
+    }
+
+    // advances frames until the bottom one is done, then returns its outcome
+    private Outcome run()
+    {
+        Outcome returned = null;
+
+        while(true)
+        {
+            Frame frame = frames.peek();
+            Outcome outcome;
+
+            try
+            {
+                outcome = frame.advance(returned);
+            }
+            catch(YadicException e)
+            {
+                if(frame.root)
+                {
+                    unwind();
+                    throw e;
+                }
+
+                frame.leavePath();
+                outcome = Outcome.of(false, false, reporting ? e : null);
+            }
+            catch(RuntimeException | Error e)
+            {
+                unwind();
+                throw e;
+            }
+
+            returned = outcome;
+
+            // frame is suspended when it needs a dependency checked
+            if(outcome == null)
+                continue;
+
+            frames.pop();
+
+            if(!frame.root)
+                finish(frame.type, outcome);
+
+            if(frames.isEmpty())
+                return outcome;
+        }
+    }
+
+    private void finish(Class<?> type, Outcome outcome)
+    {
+        pending.remove(type);
+
+        if(outcome.problem() != null)
+            problems.putIfAbsent(type, outcome.problem());
+
+        if(!outcome.pathDependent())
+            verdicts.put(type, outcome.valid());
+    }
+
+    private void unwind()
+    {
+        while(!frames.isEmpty())
+        {
+            Frame frame = frames.pop();
+
+            frame.leavePath();
+
+            if(!frame.root)
+                pending.remove(frame.type);
+        }
+    }
+
+    // outcome of dependency checked before, or null when its frame is pushed
+    private Outcome enterDependency(Class<?> dependency, String typename)
+    {
+        if(!resolver.registry.contains(dependency))
+            return missingDependency(dependency, typename);
+
+        Outcome outcome = enter(dependency);
+
+        return outcome == null ? null : outcome.withoutProblem();
+    }
+
+    private Outcome missingDependency(Class<?> dependency, String typename)
+    {
+        return Outcome.of(false, false, reporting ? new MissingDependenciesException(
+                String.format("No dependency for type %s found when resolving type %s",
+                        dependency.getTypeName(), typename)) : null);
+    }
+
+    // each cycle is reported once, no matter from which of its types it was entered
+    private YadicException findCycleProblem(Class<?> parameter, String typename)
+    {
+        if(!reporting || !cycles.add(context.findCycle(parameter)))
+            return null;
+
+        return new CircularDependenciesException(String.format(
+                "Dependencies resolving detected a cycle detected between %s and %s: %s",
+                parameter.getTypeName(), typename, context.describeCycle(parameter)));
+    }
+
+    // lazy handle resolves its dependency outside of current path, so it is checked as a root
+    private Outcome validateLazyDependency(Class<?> target, String typename)
+    {
+        if(!resolver.registry.contains(target))
+            return missingDependency(target, typename);
+
+        if(reporting)
+            lazyTargets.add(target);
+
+        return Outcome.of(true, false);
+    }
+
+    private record Outcome(boolean valid, boolean pathDependent, YadicException problem)
+    {
+        // outcomes without problem are shared, so verdicts alone allocate nothing
+        private static final Outcome[] VERDICTS = {new Outcome(false, false, null),
+                                                   new Outcome(false, true, null),
+                                                   new Outcome(true, false, null),
+                                                   new Outcome(true, true, null)};
+
+        static Outcome of(boolean valid, boolean pathDependent)
+        {
+            return VERDICTS[(valid ? 2 : 0) + (pathDependent ? 1 : 0)];
+        }
+
+        static Outcome of(boolean valid, boolean pathDependent, YadicException problem)
+        {
+            return problem == null
+                   ? of(valid, pathDependent)
+                   : new Outcome(valid, pathDependent, problem);
+        }
+
+        Outcome after(Outcome previous)
+        {
+            return of(valid && previous.valid(), pathDependent || previous.pathDependent(),
+                    previous.problem() == null ? problem : previous.problem());
+        }
+
+        // problem of a dependency itself is reported for the dependency
+        Outcome withoutProblem()
+        {
+            return problem == null ? this : of(valid, pathDependent);
+        }
+    }
+
+    /**
+     * Check of a single type, suspended while its dependencies are checked. Root frame only
+     * chooses constructor of a type that is already present in the path.
+     */
+    private final class Frame
+    {
+        private static final int START = 0;
+        private static final int PARAMETERS = 1;
+        private static final int SETTERS = 2;
+        private final Class<?> type;
+        private final boolean root;
+        private int state = START;
+        private boolean inPath = false;
+        private Class<?> subtype;
+        private boolean annotated;
+        private List<? extends Constructor<?>> candidates;
+        private int candidate;
+        private boolean constructorsPathDependent = false;
+        private Constructor<?> selected;
+        private Outcome constructorsOutcome;
+        private Class<?> settersType;
+        private List<Method> setters;
+        private Outcome settersOutcome;
+        private Class<?>[] parameters;
+        private Class<?>[] targets;
+        private boolean parametersPathDependent;
+        private int index;
+        private Outcome result;
+
+        Frame(Class<?> type, Class<?> subtype)
+        {
+            this.type = type;
+            this.subtype = subtype;
+            root = subtype != null;
+        }
+
+        /**
+         * Continue checking this frame.
+         * @param returned outcome of the dependency this frame was suspended for
+         * @return outcome of this frame, or {@code null} if it is suspended
+         */
+        Outcome advance(Outcome returned)
+        {
+            switch(state)
+            {
+                case START -> start();
+                case PARAMETERS -> parameterChecked(returned.withoutProblem());
+                case SETTERS -> setterChecked(returned.withoutProblem());
+                default ->
+                {
+                }
+            }
+
+            while(result == null)
+                if(!(state == PARAMETERS ? nextParameter() : nextSetter()))
+                    return null;
+
+            return result;
+        }
+
+        void leavePath()
+        {
+            if(inPath)
+                context.pop();
+
+            inPath = false;
+        }
+
+        private void start()
+        {
+            if(root)
+            {
+                startConstructors();
+                return;
+            }
+
+            Instance<?> instance = resolver.registry.findInstance(type);
+
+            if(instance.exists())
+            {
+                startSetters(instance.extract().getClass(), null);
+                return;
+            }
+
+            TypeConstruction<?> mapping = resolver.registry.findType(type);
+
+            // scoped type is resolved only in a scope, its dependencies do not matter outside
+            if(!scopeOpen && mapping.policy() == ConstructionPolicy.SCOPED)
+            {
+                result = Outcome.of(false, false);
+                return;
+            }
+
+            subtype = mapping.type();
+            context.push(type);
+            inPath = true;
+            startConstructors();
+        }
+
+        private void startConstructors()
+        {
+            TypeConstructors<?> constructors = TypeConstructors.of(subtype);
+
+            annotated = constructors.annotatedConstructor != null;
+            candidates = annotated
+                         ? List.of(constructors.annotatedConstructor)
+                         : constructors.parameterizedConstructors;
+            candidate = 0;
+
+            if(candidates.isEmpty())
+                finishConstructors(Outcome.of(false, false));
+            else
+                startCandidate();
+        }
+
+        private void startCandidate()
+        {
+            Constructor<?> constructor = candidates.get(candidate);
+
+            parameters = constructor.getParameterTypes();
+            targets = LazyDependencies.findTargets(constructor);
+            parametersPathDependent = false;
+            index = 0;
+            state = PARAMETERS;
+        }
+
+        // returns false when suspended for the dependency of current parameter
+        private boolean nextParameter()
+        {
+            String typename = candidates.get(candidate).getDeclaringClass().getTypeName();
+
+            while(index < parameters.length)
+            {
+                Class<?> parameter = parameters[index];
+
+                if(targets[index] != null)
+                {
+                    Outcome outcome = validateLazyDependency(targets[index], typename);
+
+                    if(!outcome.valid())
+                    {
+                        finishCandidate(outcome);
+                        return true;
+                    }
+
+                    ++index;
+                    continue;
+                }
+
+                if(context.contains(parameter))
+                {
+                    finishCandidate(
+                            Outcome.of(false, true, findCycleProblem(parameter, typename)));
+                    return true;
+                }
+
+                Outcome outcome = enterDependency(parameter, typename);
+
+                if(outcome == null)
+                    return false;
+
+                if(!parameterChecked(outcome))
+                    return true;
+            }
+
+            finishCandidate(Outcome.of(true, parametersPathDependent));
+            return true;
+        }
+
+        // returns false when current candidate cannot be used anymore
+        private boolean parameterChecked(Outcome outcome)
+        {
+            parametersPathDependent |= outcome.pathDependent();
+
+            if(!outcome.valid())
+            {
+                finishCandidate(Outcome.of(false, parametersPathDependent, outcome.problem()));
+                return false;
+            }
+
+            ++index;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void finishCandidate(Outcome outcome)
+        {
+            Constructor<Object> constructor = (Constructor<Object>)candidates.get(candidate);
+
+            constructorsPathDependent |= outcome.pathDependent();
+
+            if(outcome.valid())
+            {
+                // a constructor skipped because of a cycle may be usable from another path
+                if(annotated || !constructorsPathDependent)
+                    resolver.addPlan((Class<Object>)type,
+                            resolver.compilePlan(version, constructor));
+
+                selected = constructor;
+                finishConstructors(
+                        annotated ? outcome : Outcome.of(true, constructorsPathDependent));
+            }
+            else if(++candidate < candidates.size())
+                startCandidate();
+            else
+                finishConstructors(annotated
+                                   ? outcome
+                                   : Outcome.of(false, constructorsPathDependent,
+                                           outcome.problem()));
+        }
+
+        private void finishConstructors(Outcome outcome)
+        {
+            if(root)
+            {
+                result = outcome;
+                return;
+            }
+
+            leavePath();
+
+            if(outcome.valid())
+                startSetters(subtype, outcome);
+            else
+                result = outcome;
+        }
+
+        private void startSetters(Class<?> checkedType, Outcome outcome)
+        {
+            settersType = checkedType;
+            setters = TypeSetters.of(checkedType).setters;
+            constructorsOutcome = outcome;
+            settersOutcome = Outcome.of(true, false);
+            index = 0;
+            state = SETTERS;
+        }
+
+        // returns false when suspended for the dependency of current setter
+        private boolean nextSetter()
+        {
+            String typename = settersType.getTypeName();
+
+            while(index < setters.size())
+            {
+                Method setter = setters.get(index);
+                Class<?> target = LazyDependencies.findTargets(setter)[0];
+                Outcome outcome = target == null
+                                  ? enterDependency(setter.getParameterTypes()[0], typename)
+                                  : validateLazyDependency(target, typename);
+
+                if(outcome == null)
+                    return false;
+
+                setterChecked(outcome);
+            }
+
+            result = constructorsOutcome == null
+                     ? settersOutcome
+                     : settersOutcome.after(constructorsOutcome);
+            return true;
+        }
+
+        private void setterChecked(Outcome outcome)
+        {
+            Outcome previous = settersOutcome;
+
+            settersOutcome = Outcome.of(previous.valid() && outcome.valid(),
+                    previous.pathDependent() || outcome.pathDependent(),
+                    previous.problem() == null ? outcome.problem() : previous.problem());
+            ++index;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import com.github.refhumbold.yadic.InstantiationBackend;
+
+interface Instantiator
+{
+    /**
+     * Get instantiator for given backend. Instantiators are shared by all containers.
+     * @param backend instantiation backend
+     * @return instantiator
+     */
+    static Instantiator of(InstantiationBackend backend)
+    {
+        return switch(backend)
+        {
+            case REFLECTION -> CachingInstantiator.REFLECTION;
+            case METHOD_HANDLES -> CachingInstantiator.METHOD_HANDLES;
+        };
+    }
+
+    /**
+     * Prepare invoker of given constructor. Called for each resolution plan and for each
+     * construction without a plan, so implementations should cache invokers.
+     * @param constructor constructor
+     * @return constructor invoker
+     */
+    <T> ConstructorInvoker<T> constructor(Constructor<T> constructor);
+
+    /**
+     * Prepare invoker of given dependency setter. Called once per resolution plan.
+     * @param type type class of objects the setter is invoked on
+     * @param setter setter method
+     * @return setter invoker
+     */
+    <T> SetterInvoker setter(Class<T> type, Method setter);
+}
@@ -0,0 +1,88 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.Provider;
+
+final class LazyDependencies
+{
+    private static final ClassValue<Map<Executable, Class<?>[]>> TARGETS = new ClassValue<>()
+    {
+        @Override
+        protected Map<Executable, Class<?>[]> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private LazyDependencies()
+    {
+    }
+
+    /**
+     * Find dependencies injected lazily into parameters of given constructor or setter.
+     * @param executable constructor or setter
+     * @return for each parameter, the type resolved by its lazy handle, or {@code null} if the
+     * parameter is injected directly; the array is shared and must not be modified
+     */
+    static Class<?>[] findTargets(Executable executable)
+    {
+        return TARGETS.get(executable.getDeclaringClass())
+                      .computeIfAbsent(executable, LazyDependencies::computeTargets);
+    }
+
+    /**
+     * Replace lazily injected parameters of given constructor or setter with types they resolve.
+     * @param executable constructor or setter
+     * @return types resolved for parameters
+     */
+    static Class<?>[] findDependencies(Executable executable)
+    {
+        Class<?>[] dependencies = executable.getParameterTypes();
+        Class<?>[] targets = findTargets(executable);
+
+        for(int i = 0; i < dependencies.length; ++i)
+            if(targets[i] != null)
+                dependencies[i] = targets[i];
+
+        return dependencies;
+    }
+
+    private static Class<?>[] computeTargets(Executable executable)
+    {
+        Class<?>[] parameterTypes = executable.getParameterTypes();
+        Class<?>[] targets = new Class<?>[parameterTypes.length];
+        Type[] genericTypes = executable.getGenericParameterTypes();
+
+        // implicit parameters, e.g. of inner class constructors, have no generic types
+        if(genericTypes.length != parameterTypes.length)
+            return targets;
+
+        for(int i = 0; i < parameterTypes.length; ++i)
+            if(parameterTypes[i] == Provider.class || parameterTypes[i] == Supplier.class)
+                targets[i] = findTarget(genericTypes[i]);
+
+        return targets;
+    }
+
+    private static Class<?> findTarget(Type type)
+    {
+        if(!(type instanceof ParameterizedType parameterizedType))
+            return null;
+
+        Type argument = parameterizedType.getActualTypeArguments()[0];
+
+        if(argument instanceof WildcardType wildcardType)
+            argument = wildcardType.getUpperBounds()[0];
+
+        if(argument instanceof ParameterizedType parameterizedArgument)
+            argument = parameterizedArgument.getRawType();
+
+        return argument instanceof Class<?> target ? target : null;
+    }
+}
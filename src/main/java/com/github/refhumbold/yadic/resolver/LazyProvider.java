@@ -0,0 +1,59 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import com.github.refhumbold.yadic.Provider;
+import com.github.refhumbold.yadic.registry.ScopeSlots;
+
+class LazyProvider<T>
+        implements Provider<T>
+{
+    private final TypesResolver resolver;
+    private final Class<T> type;
+    private final ScopeSlots scope;
+    // resolution may wait for singletons of other threads, which must not pin virtual threads
+    private final Lock lock = new ReentrantLock();
+    private volatile T instance;
+
+    LazyProvider(TypesResolver resolver, Class<T> type, ScopeSlots scope)
+    {
+        this.resolver = resolver;
+        this.type = type;
+        this.scope = scope;
+    }
+
+    @Override
+    public T get()
+    {
+        T result = instance;
+
+        if(result != null)
+            return result;
+
+        lock.lock();
+
+        try
+        {
+            result = instance;
+
+            if(result == null)
+            {
+                // resolved outside of the path that injected this handle, in its scope
+                result = resolver.resolve(type, scope);
+                instance = result;
+            }
+
+            return result;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("Provider<%s>", type.getTypeName());
+    }
+}
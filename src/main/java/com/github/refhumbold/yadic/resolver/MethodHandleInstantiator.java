@@ -0,0 +1,74 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+class MethodHandleInstantiator
+        implements Instantiator
+{
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private final ReflectionInstantiator fallback = new ReflectionInstantiator();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ConstructorInvoker<T> constructor(Constructor<T> constructor)
+    {
+        int count = constructor.getParameterCount();
+        MethodHandle handle;
+
+        try
+        {
+            handle = lookup.unreflectConstructor(constructor)
+                           .asType(MethodType.genericMethodType(count))
+                           .asSpreader(Object[].class, count);
+        }
+        catch(IllegalAccessException e)
+        {
+            return fallback.constructor(constructor);
+        }
+
+        // anything thrown is wrapped as in reflection, including errors
+        return arguments -> {
+            try
+            {
+                return (T)(Object)handle.invokeExact(arguments);
+            }
+            catch(Throwable t)
+            {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+
+    @Override
+    public <T> SetterInvoker setter(Class<T> type, Method setter)
+    {
+        MethodHandle handle;
+
+        try
+        {
+            handle = lookup.unreflect(setter).asType(SETTER_TYPE);
+        }
+        catch(IllegalAccessException e)
+        {
+            return fallback.setter(type, setter);
+        }
+
+        return (object, argument) -> {
+            try
+            {
+                handle.invokeExact(object, argument);
+            }
+            catch(Throwable t)
+            {
+                throw new InvocationTargetException(t);
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+class ReflectionInstantiator
+        implements Instantiator
+{
+    @Override
+    public <T> ConstructorInvoker<T> constructor(Constructor<T> constructor)
+    {
+        return constructor::newInstance;
+    }
+
+    @Override
+    public <T> SetterInvoker setter(Class<T> type, Method setter)
+    {
+        return setter::invoke;
+    }
+}
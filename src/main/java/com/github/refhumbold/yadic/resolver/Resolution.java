@@ -0,0 +1,511 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.registry.Construction;
+import com.github.refhumbold.yadic.registry.ScopeSlots;
+import com.github.refhumbold.yadic.registry.valuetypes.Instance;
+import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.MissingDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.NoInstanceCreatedException;
+import com.github.refhumbold.yadic.resolver.exception.SetterInvocationException;
+
+/**
+ * Resolves types with an explicit stack of frames instead of recursive calls, so that the depth
+ * of dependency graph does not grow the thread stack. Each frame constructs one dependency, then
+ * injects its setters, and is suspended while dependencies of its own are resolved. Frames are
+ * reused by later resolutions in the same thread.
+ */
+class Resolution
+{
+    private static final int START = 0;
+    private static final int ARGUMENTS = 1;
+    private static final int SETTERS = 2;
+    private static final int DONE = 3;
+    private final TypesResolver resolver;
+    private final ResolutionContext context = new ResolutionContext();
+    // types of frames injecting setters, any of them requested again closes a setters cycle
+    private final ResolutionContext injecting = new ResolutionContext();
+    // instances of per-resolution types, cleared when top-level resolution finishes
+    private final ScopeSlots resolutionSlots;
+    private Frame[] frames = new Frame[16];
+    private int depth = 0;
+    private ScopeSlots scope;
+    private boolean refreshing = false;
+    // verdicts of checked types are shared by all frames until registrations change
+    private GraphValidator validator;
+
+    Resolution(TypesResolver resolver)
+    {
+        this.resolver = resolver;
+        resolutionSlots = resolver.registry.openScope();
+    }
+
+    boolean isRunning()
+    {
+        return depth > 0;
+    }
+
+    <T> T resolve(Class<T> type, ScopeSlots resolutionScope)
+    {
+        return run(type, resolutionScope, false);
+    }
+
+    /**
+     * Construct a replacement of given singleton, ignoring its current instance.
+     * @param type type class
+     */
+    void refresh(Class<?> type)
+    {
+        run(type, null, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T run(Class<T> type, ScopeSlots resolutionScope, boolean refresh)
+    {
+        scope = resolutionScope;
+        refreshing = refresh;
+        push(type);
+
+        try
+        {
+            Object returned = null;
+
+            while(true)
+            {
+                Frame frame = frames[depth - 1];
+
+                // frame is suspended again when it needs a dependency resolved
+                if(!frame.advance(returned))
+                {
+                    returned = null;
+                    continue;
+                }
+
+                returned = frame.object;
+                frame.clear();
+                --depth;
+
+                if(depth == 0)
+                    return (T)returned;
+            }
+        }
+        catch(RuntimeException | Error e)
+        {
+            while(depth > 0)
+                frames[--depth].abandon(e);
+
+            throw e;
+        }
+        finally
+        {
+            scope = null;
+            refreshing = false;
+            resolutionSlots.clear();
+        }
+    }
+
+    private GraphValidator validator()
+    {
+        if(validator == null || !validator.isCurrent())
+            validator = new GraphValidator(resolver, context);
+
+        return validator;
+    }
+
+    private void push(Class<?> type)
+    {
+        if(depth == frames.length)
+            frames = Arrays.copyOf(frames, 2 * depth);
+
+        if(frames[depth] == null)
+            frames[depth] = new Frame();
+
+        frames[depth].type = type;
+        ++depth;
+    }
+
+    private final class Frame
+    {
+        private Class<?> type;
+        private int state = START;
+        private boolean inPath;
+        private Construction<Object> construction;
+        private Object object;
+        private boolean fromPlan;
+        private boolean annotated;
+        private Class<?> subtype;
+        private long version;
+        private List<? extends Constructor<?>> candidates;
+        private int candidate;
+        private Constructor<?> constructor;
+        private ConstructorInvoker<?> invoker;
+        private Class<?>[] parameters;
+        private Class<?>[] lazyTargets;
+        private Object[] arguments;
+        private int index;
+        private List<SetterInjection> setters;
+
+        /**
+         * Continue resolving this frame.
+         * @param returned object resolved for the dependency this frame was suspended for
+         * @return {@code true} if frame is done, {@code false} if it is suspended
+         */
+        boolean advance(Object returned)
+        {
+            switch(state)
+            {
+                case START -> start();
+                case ARGUMENTS -> arguments[index++] = returned;
+                case SETTERS -> inject(setters.get(index++), returned);
+                default ->
+                {
+                }
+            }
+
+            while(state != DONE)
+                if(!(state == ARGUMENTS ? nextArgument() : nextSetter()))
+                    return false;
+
+            return true;
+        }
+
+        void abandon(Throwable failure)
+        {
+            if(construction != null)
+                construction.abandon(failure);
+
+            if(inPath)
+                context.pop();
+
+            if(state == SETTERS)
+                injecting.pop();
+
+            clear();
+        }
+
+        void clear()
+        {
+            type = null;
+            state = START;
+            inPath = false;
+            construction = null;
+            object = null;
+            fromPlan = false;
+            annotated = false;
+            subtype = null;
+            candidates = null;
+            constructor = null;
+            invoker = null;
+            parameters = null;
+            lazyTargets = null;
+            arguments = null;
+            setters = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void start()
+        {
+            context.push(type);
+            inPath = true;
+
+            // only the replaced singleton itself is refreshed, not its dependencies
+            boolean replaced = refreshing && this == frames[0];
+            Instance<?> instance =
+                    replaced ? Instance.none() : resolver.registry.findInstance(type);
+
+            if(instance.exists())
+            {
+                finishExisting(instance.extract());
+                return;
+            }
+
+            construction = (Construction<Object>)(replaced
+                                                  ? resolver.registry.startRefresh(type)
+                                                  : resolver.registry.startConstruction(type,
+                                                          scope, resolutionSlots));
+
+            Object existing = construction.existing();
+
+            if(existing != null)
+            {
+                construction = null;
+                finishExisting(existing);
+                return;
+            }
+
+            if(injecting.contains(type))
+                throw new CircularDependenciesException(
+                        String.format("Setters injection detected a cycle of new instances of type "
+                                              + "%s: %s", type.getTypeName(),
+                                injecting.describeCycle(type)));
+
+            long currentVersion = resolver.registry.version();
+            ResolutionPlan<?> plan = resolver.findPlan(type);
+
+            if(plan == null)
+            {
+                construct(resolver.registry.findType(type).type(), currentVersion);
+                return;
+            }
+
+            fromPlan = true;
+            subtype = plan.subtype();
+            version = plan.version();
+            prepare(plan.constructor(), plan.invoker(), plan.parameters(), plan.lazyTargets());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void construct(Class<?> constructedType, long constructedVersion)
+        {
+            TypeConstructors<?> constructors = TypeConstructors.of(constructedType);
+
+            fromPlan = false;
+            subtype = constructedType;
+            version = constructedVersion;
+
+            if(constructors.annotatedConstructor != null)
+            {
+                annotated = true;
+                prepare(constructors.annotatedConstructor);
+                return;
+            }
+
+            // constructor is chosen before any dependency is resolved, so none is built in vain
+            Constructor<?> selected =
+                    validator().selectConstructor((Class<Object>)type, constructedType);
+
+            candidates = constructors.parameterizedConstructors;
+            // without any usable constructor, invoking the last one reports why it cannot be used
+            candidate = selected == null ? candidates.size() - 1 : candidates.indexOf(selected);
+            prepare(selected == null ? candidates.get(candidate) : selected);
+        }
+
+        // constructors following the failed one are tried in order, as when none was selected
+        private void fallBack(Constructor<?> failed)
+        {
+            TypeConstructors<?> constructors = TypeConstructors.of(subtype);
+
+            fromPlan = false;
+
+            if(failed.equals(constructors.annotatedConstructor))
+            {
+                annotated = true;
+                return;
+            }
+
+            candidates = constructors.parameterizedConstructors;
+            candidate = candidates.indexOf(failed);
+        }
+
+        // invoked with configured backend or generated factory, as in compiled plans
+        private void prepare(Constructor<?> chosen)
+        {
+            prepare(chosen, resolver.instantiator.constructor(chosen), chosen.getParameterTypes(),
+                    LazyDependencies.findTargets(chosen));
+        }
+
+        private void prepare(
+                Constructor<?> chosen,
+                ConstructorInvoker<?> chosenInvoker,
+                Class<?>[] chosenParameters,
+                Class<?>[] chosenLazyTargets)
+        {
+            constructor = chosen;
+            invoker = chosenInvoker;
+            parameters = chosenParameters;
+            lazyTargets = chosenLazyTargets;
+            arguments = new Object[chosenParameters.length];
+            index = 0;
+            state = ARGUMENTS;
+        }
+
+        // returns false when suspended for the dependency of current parameter
+        private boolean nextArgument()
+        {
+            String typename = constructor.getDeclaringClass().getTypeName();
+
+            // exceptions are created only when no other constructor can be used instead
+            while(index < parameters.length)
+            {
+                boolean lazy = lazyTargets[index] != null;
+                Class<?> parameter = lazy ? lazyTargets[index] : parameters[index];
+
+                // lazy handle resolves its dependency later, so it cannot close a cycle
+                if(!lazy && context.contains(parameter))
+                {
+                    String cycle = context.describeCycle(parameter);
+
+                    fail(() -> new CircularDependenciesException(
+                            String.format("Dependencies resolving detected a cycle detected "
+                                                  + "between %s and %s: %s",
+                                    parameter.getTypeName(), typename, cycle)), true);
+                    return true;
+                }
+
+                if(!resolver.registry.contains(parameter))
+                {
+                    fail(() -> new MissingDependenciesException(
+                            String.format("No dependency for type %s found when resolving type %s",
+                                    parameter.getTypeName(), typename)), true);
+                    return true;
+                }
+
+                if(!lazy)
+                {
+                    push(parameter);
+                    return false;
+                }
+
+                arguments[index++] = new LazyProvider<>(resolver, parameter, scope);
+            }
+
+            invokeConstructor(typename);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void invokeConstructor(String typename)
+        {
+            Object instance;
+
+            try
+            {
+                instance = invoker.invoke(arguments);
+            }
+            catch(Exception e)
+            {
+                fail(() -> new NoInstanceCreatedException(
+                        String.format("Could not invoke constructor due to an error: %s",
+                                e.getMessage()), e), false);
+                return;
+            }
+
+            if(instance == null)
+            {
+                fail(() -> new NoInstanceCreatedException(
+                        String.format("Constructor could not produce an instance of type %s",
+                                typename)), false);
+                return;
+            }
+
+            if(annotated)
+                resolver.addPlan((Class<Object>)type,
+                        resolver.compilePlan(version, (Constructor<Object>)constructor));
+
+            Object constructed = construction.complete(instance);
+
+            construction = null;
+            finishConstruction(constructed);
+        }
+
+        private void fail(Supplier<? extends RuntimeException> exception, boolean pathDependent)
+        {
+            if(fromPlan)
+            {
+                // plan compiled in another path may not fit the current one
+                if(pathDependent)
+                {
+                    construct(subtype, version);
+                    return;
+                }
+
+                fallBack(constructor);
+            }
+
+            if(annotated)
+                throw new NoInstanceCreatedException(String.format(
+                        "Dependency constructor could not produce an instance for type %s",
+                        subtype.getTypeName()), exception.get());
+
+            if(candidate + 1 < candidates.size())
+            {
+                prepare(candidates.get(++candidate));
+                return;
+            }
+
+            throw exception.get();
+        }
+
+        // setters of existing instance are being injected below, injecting them again never ends
+        private void finishExisting(Object existing)
+        {
+            if(!injecting.contains(type))
+            {
+                finishConstruction(existing);
+                return;
+            }
+
+            object = existing;
+            context.pop();
+            inPath = false;
+            state = DONE;
+        }
+
+        private void finishConstruction(Object constructed)
+        {
+            object = constructed;
+            context.pop();
+            inPath = false;
+            constructor = null;
+            invoker = null;
+            parameters = null;
+            lazyTargets = null;
+            arguments = null;
+
+            ResolutionPlan<?> plan = resolver.findPlan(type);
+
+            setters = plan != null && plan.subtype() == object.getClass()
+                      ? plan.setters()
+                      : SetterInjection.findAll(object.getClass());
+            index = 0;
+            state = SETTERS;
+            injecting.push(type);
+        }
+
+        // returns false when suspended for the dependency of current setter
+        private boolean nextSetter()
+        {
+            while(index < setters.size())
+            {
+                SetterInjection setter = setters.get(index);
+                boolean lazy = setter.lazyTarget() != null;
+                Class<?> parameter = lazy ? setter.lazyTarget() : setter.parameter();
+
+                if(!resolver.registry.contains(parameter))
+                    throw new MissingDependenciesException(
+                            String.format("No dependency for type %s found when resolving type %s",
+                                    parameter.getTypeName(), object.getClass().getTypeName()));
+
+                if(!lazy)
+                {
+                    push(parameter);
+                    return false;
+                }
+
+                inject(setter, new LazyProvider<>(resolver, parameter, scope));
+                ++index;
+            }
+
+            injecting.pop();
+            state = DONE;
+            return true;
+        }
+
+        private void inject(SetterInjection setter, Object argument)
+        {
+            try
+            {
+                setter.invoker().invoke(object, argument);
+            }
+            catch(Exception e)
+            {
+                throw new SetterInvocationException(
+                        String.format("Could not invoke setter '%s' due to an error: %s",
+                                setter.setter().getName(), e.getMessage()), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ResolutionContext
+{
+    private static final AtomicInteger nextTypeId = new AtomicInteger();
+    private static final ClassValue<Integer> TYPE_IDS = new ClassValue<>()
+    {
+        @Override
+        protected Integer computeValue(Class<?> type)
+        {
+            return nextTypeId.getAndIncrement();
+        }
+    };
+
+    private final BitSet visited = new BitSet();
+    private Class<?>[] path = new Class<?>[16];
+    private boolean[] owned = new boolean[16];
+    private int depth = 0;
+
+    boolean contains(Class<?> type)
+    {
+        return visited.get(TYPE_IDS.get(type));
+    }
+
+    void push(Class<?> type)
+    {
+        if(depth == path.length)
+        {
+            path = Arrays.copyOf(path, 2 * depth);
+            owned = Arrays.copyOf(owned, 2 * depth);
+        }
+
+        int id = TYPE_IDS.get(type);
+
+        path[depth] = type;
+        owned[depth] = !visited.get(id);
+        visited.set(id);
+        ++depth;
+    }
+
+    void pop()
+    {
+        --depth;
+
+        if(owned[depth])
+            visited.clear(TYPE_IDS.get(path[depth]));
+
+        path[depth] = null;
+    }
+
+    /**
+     * Describe the cycle closed by given type, starting from its occurrence in the current path.
+     * @param type type class already present in the path
+     * @return names of types in the cycle
+     */
+    String describeCycle(Class<?> type)
+    {
+        return Stream.concat(Arrays.stream(path, findStart(type), depth), Stream.of(type))
+                     .map(Class::getTypeName)
+                     .collect(Collectors.joining(" -> "));
+    }
+
+    /**
+     * Find types in the cycle closed by given type.
+     * @param type type class already present in the path
+     * @return types in the cycle
+     */
+    Set<Class<?>> findCycle(Class<?> type)
+    {
+        return Set.of(Arrays.copyOfRange(path, findStart(type), depth));
+    }
+
+    private int findStart(Class<?> type)
+    {
+        int start = 0;
+
+        while(start < depth && path[start] != type)
+            ++start;
+
+        return start;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+record ResolutionPlan<T>(
+        long version,
+        Class<T> subtype,
+        Constructor<T> constructor,
+        Class<?>[] parameters,
+        Class<?>[] lazyTargets,
+        ConstructorInvoker<T> invoker,
+        List<SetterInjection> setters)
+{
+    ResolutionPlan(
+            long version,
+            Constructor<T> constructor,
+            List<SetterInjection> setters,
+            Instantiator instantiator)
+    {
+        this(version, constructor.getDeclaringClass(), constructor, constructor.getParameterTypes(),
+                LazyDependencies.findTargets(constructor), instantiator.constructor(constructor),
+                setters);
+    }
+}
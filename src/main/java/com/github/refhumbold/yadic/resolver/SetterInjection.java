@@ -0,0 +1,52 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import com.github.refhumbold.yadic.InstantiationBackend;
+
+record SetterInjection(
+        Method setter, Class<?> parameter, Class<?> lazyTarget, SetterInvoker invoker)
+{
+    private static final ClassValue<List<SetterInjection>> REFLECTION_SETTERS = new ClassValue<>()
+    {
+        @Override
+        protected List<SetterInjection> computeValue(Class<?> type)
+        {
+            return findAll(type, Instantiator.of(InstantiationBackend.REFLECTION));
+        }
+    };
+
+    SetterInjection(Class<?> type, Method setter, Instantiator instantiator)
+    {
+        this(setter, setter.getParameterTypes()[0], LazyDependencies.findTargets(setter)[0],
+                instantiator.setter(type, setter));
+    }
+
+    /**
+     * Prepare injections by all dependency setters of given type.
+     * @param type type class
+     * @param instantiator instantiator preparing setter invokers
+     * @return setter injections
+     */
+    static List<SetterInjection> findAll(Class<?> type, Instantiator instantiator)
+    {
+        TypeSetters setters = TypeSetters.of(type);
+
+        return setters == TypeSetters.NONE
+               ? List.of()
+               : setters.setters.stream()
+                                .map(setter -> new SetterInjection(type, setter, instantiator))
+                                .toList();
+    }
+
+    /**
+     * Find injections by all dependency setters of given type, invoked by reflection. Used for
+     * objects of types without a resolution plan.
+     * @param type type class
+     * @return setter injections
+     */
+    static List<SetterInjection> findAll(Class<?> type)
+    {
+        return REFLECTION_SETTERS.get(type);
+    }
+}
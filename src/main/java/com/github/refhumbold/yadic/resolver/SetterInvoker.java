@@ -0,0 +1,8 @@
+package com.github.refhumbold.yadic.resolver;
+
+@FunctionalInterface
+interface SetterInvoker
+{
+    void invoke(Object object, Object argument)
+            throws Exception;
+}
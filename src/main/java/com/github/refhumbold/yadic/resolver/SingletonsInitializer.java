@@ -0,0 +1,178 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.resolver.exception.NoInstanceCreatedException;
+
+/**
+ * Constructs singletons in dependency order. Each singleton is constructed as soon as singletons
+ * it depends on are ready, so independent singletons are constructed in parallel.
+ */
+class SingletonsInitializer
+{
+    private final TypesResolver resolver;
+    private final Executor executor;
+    private final Map<Class<?>, CompletableFuture<Void>> constructions = new HashMap<>();
+    private final Map<Class<?>, Set<Class<?>>> singletonDependencies = new HashMap<>();
+    private final Set<Class<?>> pending = new HashSet<>();
+    private final Set<Class<?>> scheduling = new HashSet<>();
+
+    SingletonsInitializer(TypesResolver resolver, Executor executor)
+    {
+        this.resolver = resolver;
+        this.executor = executor;
+    }
+
+    /**
+     * Construct all singletons reachable from given types and wait for them.
+     * @param roots type classes to start from
+     */
+    void initialize(Collection<Class<?>> roots)
+    {
+        resolver.validate(roots);
+
+        for(Class<?> root : roots)
+            if(isSingleton(root))
+                schedule(root);
+            else
+                findSingletonDependencies(root).forEach(this::schedule);
+
+        try
+        {
+            CompletableFuture.allOf(constructions.values().toArray(CompletableFuture[]::new))
+                             .join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof RuntimeException exception)
+                throw exception;
+
+            if(e.getCause() instanceof Error error)
+                throw error;
+
+            throw new NoInstanceCreatedException(
+                    String.format("Singletons could not be constructed due to an error: %s",
+                            e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    private CompletableFuture<Void> schedule(Class<?> singleton)
+    {
+        CompletableFuture<Void> construction = constructions.get(singleton);
+
+        if(construction != null)
+            return construction;
+
+        // singleton reached again through setters does not wait for itself
+        if(!scheduling.add(singleton))
+            return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<?>[] dependencies =
+                findSingletonDependencies(singleton).stream()
+                                                    .map(this::schedule)
+                                                    .toArray(CompletableFuture[]::new);
+
+        construction = CompletableFuture.allOf(dependencies)
+                                        .thenRunAsync(() -> resolver.resolve(singleton),
+                                                executor);
+        scheduling.remove(singleton);
+        constructions.put(singleton, construction);
+        return construction;
+    }
+
+    // singletons which construction of given type waits for, directly or through non-singletons
+    private Set<Class<?>> findSingletonDependencies(Class<?> type)
+    {
+        Set<Class<?>> singletons = singletonDependencies.get(type);
+
+        if(singletons != null)
+            return singletons;
+
+        // type reached again through setters does not wait for itself
+        if(!pending.add(type))
+            return Set.of();
+
+        singletons = new LinkedHashSet<>();
+
+        for(Class<?> dependency : findDependencies(type))
+            if(!pending.contains(dependency))
+                if(isSingleton(dependency))
+                    singletons.add(dependency);
+                else
+                    singletons.addAll(findSingletonDependencies(dependency));
+
+        pending.remove(type);
+        singletonDependencies.put(type, singletons);
+        return singletons;
+    }
+
+    private Set<Class<?>> findDependencies(Class<?> type)
+    {
+        if(resolver.registry.findInstance(type).exists())
+            return Set.of();
+
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
+        ResolutionPlan<?> plan = resolver.findPlan(type);
+
+        // lazily injected dependencies are not needed to construct the type
+        if(plan != null)
+        {
+            for(int i = 0; i < plan.parameters().length; ++i)
+                if(plan.lazyTargets()[i] == null)
+                    dependencies.add(plan.parameters()[i]);
+
+            for(SetterInjection setter : plan.setters())
+                if(setter.lazyTarget() == null)
+                    dependencies.add(setter.parameter());
+
+            return dependencies;
+        }
+
+        // without a plan the constructor depends on path, so all candidates are awaited
+        Class<?> subtype = resolver.registry.findType(type).type();
+        TypeConstructors<?> constructors = TypeConstructors.of(subtype);
+
+        if(constructors.annotatedConstructor != null)
+            addDirectDependencies(dependencies, constructors.annotatedConstructor);
+
+        for(Constructor<?> constructor : constructors.parameterizedConstructors)
+            addDirectDependencies(dependencies, constructor);
+
+        for(Method setter : TypeSetters.of(subtype).setters)
+            addDirectDependencies(dependencies, setter);
+
+        return dependencies;
+    }
+
+    private void addDirectDependencies(Set<Class<?>> dependencies, Executable executable)
+    {
+        Class<?>[] parameters = executable.getParameterTypes();
+        Class<?>[] targets = LazyDependencies.findTargets(executable);
+
+        for(int i = 0; i < parameters.length; ++i)
+            if(targets[i] == null)
+                dependencies.add(parameters[i]);
+    }
+
+    private boolean isSingleton(Class<?> type)
+    {
+        if(resolver.registry.findInstance(type).exists())
+            return false;
+
+        ConstructionPolicy policy = resolver.registry.findType(type).policy();
+
+        return policy == ConstructionPolicy.SINGLETON
+                || policy == ConstructionPolicy.SOFT_SINGLETON;
+    }
+}
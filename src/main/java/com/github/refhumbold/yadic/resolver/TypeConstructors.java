@@ -1,9 +1,10 @@
 package com.github.refhumbold.yadic.resolver;
 
 import java.lang.reflect.Constructor;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.YadicException;
 import com.github.refhumbold.yadic.annotation.YadicDependency;
 import com.github.refhumbold.yadic.resolver.exception.MultipleAnnotatedConstructorsException;
 import com.github.refhumbold.yadic.resolver.exception.NoSuitableConstructorException;
@@ -11,37 +12,72 @@ import com.github.refhumbold.yadic.utils.TypeUtils;
 
 class TypeConstructors<T>
 {
+    private static final ClassValue<TypeConstructors<?>> CACHE = new ClassValue<>()
+    {
+        @Override
+        protected TypeConstructors<?> computeValue(Class<?> type)
+        {
+            return new TypeConstructors<>(type);
+        }
+    };
+
     final String typename;
     final Constructor<T> annotatedConstructor;
     final List<Constructor<T>> parameterizedConstructors;
+    private final Supplier<? extends YadicException> error;
 
     @SuppressWarnings("unchecked")
-    TypeConstructors(Class<T> type)
+    private TypeConstructors(Class<T> type)
     {
         typename = type.getTypeName();
 
         Constructor<T>[] constructors = (Constructor<T>[])type.getConstructors();
 
-        if(constructors.length == 0)
-            throw new NoSuitableConstructorException(
-                    String.format("No public constructors found for type %s", typename));
-
         Arrays.sort(constructors, new ConstructorComparator());
-        parameterizedConstructors = new ArrayList<>(Arrays.asList(constructors));
 
-        if(constructors[0].isAnnotationPresent(YadicDependency.class))
+        if(constructors.length == 0)
         {
-            if(constructors.length > 1 && constructors[1].isAnnotationPresent(
-                    YadicDependency.class))
-                throw new MultipleAnnotatedConstructorsException(
-                        String.format("Type %s has more than one constructor with %s annotation",
-                                typename, TypeUtils.getAnnotationName(YadicDependency.class)));
-
-            annotatedConstructor = parameterizedConstructors.removeFirst();
+            annotatedConstructor = null;
+            parameterizedConstructors = List.of();
+            error = () -> new NoSuitableConstructorException(
+                    String.format("No public constructors found for type %s", typename));
+        }
+        else if(constructors[0].isAnnotationPresent(YadicDependency.class))
+        {
+            annotatedConstructor = constructors[0];
+            parameterizedConstructors =
+                    List.of(Arrays.copyOfRange(constructors, 1, constructors.length));
+            error = constructors.length > 1 && constructors[1].isAnnotationPresent(
+                    YadicDependency.class)
+                    ? () -> new MultipleAnnotatedConstructorsException(
+                    String.format("Type %s has more than one constructor with %s annotation",
+                            typename, TypeUtils.getAnnotationName(YadicDependency.class)))
+                    : null;
         }
         else
         {
             annotatedConstructor = null;
+            parameterizedConstructors = List.of(constructors);
+            error = null;
         }
     }
+
+    /**
+     * Find public constructors of given type. Constructors are discovered and sorted once per
+     * class and shared by all containers.
+     * @param type type class
+     * @return constructors of type
+     * @throws NoSuitableConstructorException if type has no public constructors
+     * @throws MultipleAnnotatedConstructorsException if type has many annotated constructors
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeConstructors<T> of(Class<T> type)
+    {
+        TypeConstructors<T> constructors = (TypeConstructors<T>)CACHE.get(type);
+
+        if(constructors.error != null)
+            throw constructors.error.get();
+
+        return constructors;
+    }
 }
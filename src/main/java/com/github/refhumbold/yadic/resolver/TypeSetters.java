@@ -0,0 +1,66 @@
+package com.github.refhumbold.yadic.resolver;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+import com.github.refhumbold.yadic.resolver.exception.IncorrectDependencySetterException;
+
+class TypeSetters
+{
+    static final TypeSetters NONE = new TypeSetters(List.of());
+    private static final Pattern SETTER_NAME_PATTERN = Pattern.compile("^set[a-z]?[A-Z](\\w|\\d)*");
+    private static final ClassValue<TypeSetters> CACHE = new ClassValue<>()
+    {
+        @Override
+        protected TypeSetters computeValue(Class<?> type)
+        {
+            List<Method> setters = Arrays.stream(type.getMethods())
+                                         .filter(TypeSetters::hasAnnotation)
+                                         .filter(TypeSetters::validateSetter)
+                                         .toList();
+
+            return setters.isEmpty() ? NONE : new TypeSetters(setters);
+        }
+    };
+
+    final List<Method> setters;
+
+    private TypeSetters(List<Method> setters)
+    {
+        this.setters = setters;
+    }
+
+    /**
+     * Find dependency setters of given type. Setters are discovered once per class.
+     * @param type type class
+     * @return dependency setters, or {@link #NONE} if type has none
+     * @throws IncorrectDependencySetterException if any annotated method is not a setter
+     */
+    static TypeSetters of(Class<?> type)
+    {
+        return CACHE.get(type);
+    }
+
+    private static boolean hasAnnotation(Method method)
+    {
+        return method.getDeclaringClass() != Object.class && method.isAnnotationPresent(
+                YadicDependency.class);
+    }
+
+    private static boolean validateSetter(Method method)
+    {
+        if(!isSetter(method))
+            throw new IncorrectDependencySetterException(
+                    "Dependency method must be a setter method");
+
+        return true;
+    }
+
+    private static boolean isSetter(Method method)
+    {
+        return method.getReturnType() == void.class && SETTER_NAME_PATTERN.matcher(
+                method.getName()).matches() && method.getParameterCount() == 1;
+    }
+}
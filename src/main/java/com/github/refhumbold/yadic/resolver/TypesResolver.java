@@ -1,32 +1,239 @@
 package com.github.refhumbold.yadic.resolver;
 
-import java.util.Stack;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import com.github.refhumbold.yadic.InstantiationBackend;
+import com.github.refhumbold.yadic.YadicException;
 import com.github.refhumbold.yadic.YadicResolver;
 import com.github.refhumbold.yadic.registry.DependencyRegistry;
+import com.github.refhumbold.yadic.registry.ScopeSlots;
+import com.github.refhumbold.yadic.resolver.exception.DependencyGraphException;
+import com.github.refhumbold.yadic.utils.TypeUtils;
 
 public class TypesResolver
         implements YadicResolver
 {
     final DependencyRegistry registry;
-    private final ConstructorResolver constructorResolver = new ConstructorResolver(this);
-    private final SetterResolver setterResolver = new SetterResolver(this);
+    final Instantiator instantiator;
+    private final Map<Class<?>, ResolutionPlan<?>> plans = new ConcurrentHashMap<>();
+    // verdicts of types resolved outside of scopes and in scopes, stamped with registry version
+    private final Map<Class<?>, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Verdict> scopedVerdicts = new ConcurrentHashMap<>();
+    private final ThreadLocal<Resolution> resolutions =
+            ThreadLocal.withInitial(() -> new Resolution(this));
 
     public TypesResolver(DependencyRegistry registry)
+    {
+        this(registry, InstantiationBackend.METHOD_HANDLES);
+    }
+
+    public TypesResolver(DependencyRegistry registry, InstantiationBackend backend)
     {
         this.registry = registry;
+        instantiator = Instantiator.of(backend);
+        registry.setRefresher(this::refresh);
     }
 
     @Override
     public <T> T resolve(Class<T> type)
     {
-        return resolve(type, new Stack<>());
+        return resolve(type, null);
+    }
+
+    /**
+     * Resolve given type in given scope, which holds instances of scoped types.
+     * @param type type class
+     * @param scope scope of resolution, or {@code null} to resolve outside of any scope
+     * @return new instance
+     */
+    public <T> T resolve(Class<T> type, ScopeSlots scope)
+    {
+        Resolution resolution = resolutions.get();
+
+        // nested top-level resolution cannot reuse frames of the outer one
+        if(resolution.isRunning())
+            resolution = new Resolution(this);
+
+        return resolution.resolve(type, scope);
+    }
+
+    /**
+     * Construct replacement of a singleton whose time to live has passed. Dependencies of the
+     * replacement are resolved as usual.
+     * @param type type class
+     */
+    void refresh(Class<?> type)
+    {
+        Resolution resolution = resolutions.get();
+
+        if(resolution.isRunning())
+            resolution = new Resolution(this);
+
+        resolution.refresh(type);
+    }
+
+    /**
+     * Resolve given type without throwing when it cannot be resolved. Whether the type can be
+     * resolved is checked as in {@link #validate(Collection)} and remembered until registrations
+     * change, so that probing an unresolvable type again costs a single lookup.
+     * @param type type class
+     * @return new instance, or empty if type cannot be resolved
+     */
+    @Override
+    public <T> Optional<T> tryResolve(Class<T> type)
+    {
+        return tryResolve(type, null);
+    }
+
+    /**
+     * Resolve given type in given scope without throwing when it cannot be resolved.
+     * @param type type class
+     * @param scope scope of resolution, or {@code null} to resolve outside of any scope
+     * @return new instance, or empty if type cannot be resolved
+     * @see #tryResolve(Class)
+     */
+    public <T> Optional<T> tryResolve(Class<T> type, ScopeSlots scope)
+    {
+        if(!isResolvable(type, scope != null))
+            return Optional.empty();
+
+        try
+        {
+            return Optional.of(resolve(type, scope));
+        }
+        catch(YadicException e)
+        {
+            // constructor failed, which can only be found by calling it
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Check that given types and all their dependencies can be resolved, without constructing
+     * any instance. Resolution plans of valid types are compiled, so that their first resolving
+     * does not inspect them anymore.
+     * @param roots type classes to start from
+     * @throws DependencyGraphException if any problem is found, with all problems found
+     */
+    public void validate(Collection<Class<?>> roots)
+    {
+        List<YadicException> problems = new GraphValidator(this).validate(roots);
+
+        if(!problems.isEmpty())
+            throw new DependencyGraphException(problems);
+    }
+
+    /**
+     * Construct singletons reachable from given types, after checking them as in
+     * {@link #validate(Collection)}. Singletons that do not depend on each other are constructed
+     * in parallel.
+     * @param roots type classes to start from
+     * @param executor executor running constructions
+     */
+    public void instantiateSingletons(Collection<Class<?>> roots, Executor executor)
+    {
+        new SingletonsInitializer(this, executor).initialize(roots);
     }
 
-    <T> T resolve(Class<T> type, Stack<Class<?>> path)
+    /**
+     * Register annotated types reachable from registered types and freeze the registry.
+     */
+    public void freeze()
     {
-        T object = constructorResolver.resolve(type, path);
+        Deque<Class<?>> types = new ArrayDeque<>(registry.getTypes());
+        Set<Class<?>> visited = new HashSet<>(types);
 
-        object = setterResolver.resolve(object, path);
-        return object;
+        while(!types.isEmpty())
+            for(Class<?> dependency : findDependencies(types.pop()))
+                if(TypeUtils.isAnnotatedType(dependency) && visited.add(dependency))
+                    types.push(dependency);
+
+        registry.freeze();
+    }
+
+    /**
+     * Find the plan compiled by an earlier resolution of given type. Plans compiled for another
+     * version of registrations are ignored, since a different subtype or constructor could be
+     * chosen now.
+     * @param type type class
+     * @return resolution plan, or {@code null} if not compiled for current registrations
+     */
+    @SuppressWarnings("unchecked")
+    <T> ResolutionPlan<? extends T> findPlan(Class<T> type)
+    {
+        ResolutionPlan<? extends T> plan = (ResolutionPlan<? extends T>)plans.get(type);
+
+        return plan != null && plan.version() == registry.version() ? plan : null;
+    }
+
+    <T> void addPlan(Class<T> type, ResolutionPlan<? extends T> plan)
+    {
+        plans.put(type, plan);
+    }
+
+    private boolean isResolvable(Class<?> type, boolean scopeOpen)
+    {
+        Map<Class<?>, Verdict> cache = scopeOpen ? scopedVerdicts : verdicts;
+        long version = registry.version();
+        Verdict verdict = cache.get(type);
+
+        if(verdict != null && verdict.version() == version)
+            return verdict.resolvable();
+
+        boolean resolvable = !(TypeUtils.isAbstractReferenceType(type) && !registry.contains(type))
+                && new GraphValidator(this, scopeOpen).isValid(type);
+
+        cache.put(type, new Verdict(version, resolvable));
+        return resolvable;
+    }
+
+    private List<Class<?>> findDependencies(Class<?> type)
+    {
+        try
+        {
+            Class<?> subtype = registry.findType(type).type();
+            TypeConstructors<?> constructors = TypeConstructors.of(subtype);
+            List<Class<?>> dependencies = new ArrayList<>();
+
+            if(constructors.annotatedConstructor != null)
+                dependencies.addAll(Arrays.asList(
+                        LazyDependencies.findDependencies(constructors.annotatedConstructor)));
+
+            for(Constructor<?> constructor : constructors.parameterizedConstructors)
+                dependencies.addAll(Arrays.asList(LazyDependencies.findDependencies(constructor)));
+
+            for(Method setter : TypeSetters.of(subtype).setters)
+                dependencies.add(LazyDependencies.findDependencies(setter)[0]);
+
+            return dependencies;
+        }
+        catch(YadicException e)
+        {
+            // invalid type is reported when it is resolved
+            return List.of();
+        }
+    }
+
+    <T> ResolutionPlan<T> compilePlan(long version, Constructor<T> constructor)
+    {
+        return new ResolutionPlan<>(version, constructor,
+                SetterInjection.findAll(constructor.getDeclaringClass(), instantiator),
+                instantiator);
+    }
+
+    private record Verdict(long version, boolean resolvable)
+    {
     }
 }
@@ -0,0 +1,33 @@
+package com.github.refhumbold.yadic.resolver.exception;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.stream.Collectors;
+import com.github.refhumbold.yadic.YadicException;
+
+public class DependencyGraphException
+        extends YadicException
+{
+    @Serial private static final long serialVersionUID = -4417263950915718462L;
+    // array is serializable, unlike List type of the field
+    private final YadicException[] problems;
+
+    public DependencyGraphException(List<YadicException> problems)
+    {
+        super(String.format("Dependency graph has %d problem(s):%n%s", problems.size(),
+                problems.stream()
+                        .map(problem -> String.format("  %s: %s",
+                                problem.getClass().getSimpleName(), problem.getMessage()))
+                        .collect(Collectors.joining(System.lineSeparator()))));
+        this.problems = problems.toArray(YadicException[]::new);
+        problems.forEach(this::addSuppressed);
+    }
+
+    /**
+     * @return all problems found in dependency graph
+     */
+    public List<YadicException> getProblems()
+    {
+        return List.of(problems);
+    }
+}
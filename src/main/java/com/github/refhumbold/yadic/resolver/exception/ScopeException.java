@@ -0,0 +1,15 @@
+package com.github.refhumbold.yadic.resolver.exception;
+
+import java.io.Serial;
+import com.github.refhumbold.yadic.YadicException;
+
+public class ScopeException
+        extends YadicException
+{
+    @Serial private static final long serialVersionUID = 3418906127734956502L;
+
+    public ScopeException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.refhumbold.yadic.utils;
+
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicException;
+import com.github.refhumbold.yadic.annotation.YadicRegister;
+import com.github.refhumbold.yadic.annotation.YadicRegisterSelf;
+import com.github.refhumbold.yadic.registry.exception.AbstractTypeException;
+import com.github.refhumbold.yadic.registry.exception.NotDerivedTypeException;
+
+/**
+ * Metadata of a class, which does not depend on registrations. It is computed once per class and
+ * shared by all containers, without keeping the class loader of the class alive.
+ * @param isAbstract whether class is an interface or an abstract class
+ * @param isAnnotated whether class is annotated with a register annotation
+ * @param annotatedSubtype subtype registered by the annotation, or {@code null}
+ * @param annotatedPolicy construction policy registered by the annotation, or {@code null}
+ * @param annotationError supplier of error in the annotation, or {@code null} if it is correct
+ */
+public record TypeMetadata(
+        boolean isAbstract,
+        boolean isAnnotated,
+        Class<?> annotatedSubtype,
+        ConstructionPolicy annotatedPolicy,
+        Supplier<? extends YadicException> annotationError)
+{
+    private static final ClassValue<TypeMetadata> METADATA = new ClassValue<>()
+    {
+        @Override
+        protected TypeMetadata computeValue(Class<?> type)
+        {
+            return create(type);
+        }
+    };
+
+    public static TypeMetadata of(Class<?> type)
+    {
+        return METADATA.get(type);
+    }
+
+    public boolean isValid()
+    {
+        return annotationError == null;
+    }
+
+    /**
+     * @throws YadicException if register annotation of the class is incorrect
+     */
+    public void validate()
+    {
+        if(annotationError != null)
+            throw annotationError.get();
+    }
+
+    private static TypeMetadata create(Class<?> type)
+    {
+        boolean isAbstract = isAbstract(type);
+        YadicRegister register = type.getAnnotation(YadicRegister.class);
+
+        if(register != null)
+            return new TypeMetadata(isAbstract, true, register.value(), register.policy(),
+                    findRegisterError(type, register.value()));
+
+        YadicRegisterSelf registerSelf = type.getAnnotation(YadicRegisterSelf.class);
+
+        if(registerSelf != null)
+            return new TypeMetadata(isAbstract, true, type, registerSelf.policy(),
+                    isAbstract ? () -> new AbstractTypeException(
+                            String.format("Abstract type %s cannot be annotated with %s",
+                                    type.getTypeName(),
+                                    TypeUtils.getAnnotationName(YadicRegisterSelf.class)))
+                               : null);
+
+        return new TypeMetadata(isAbstract, false, null, null, null);
+    }
+
+    private static Supplier<? extends YadicException> findRegisterError(
+            Class<?> type, Class<?> subtype)
+    {
+        if(!type.isAssignableFrom(subtype))
+            return () -> new NotDerivedTypeException(
+                    String.format("Type %s registered via %s is not derived type of %s",
+                            subtype.getTypeName(),
+                            TypeUtils.getAnnotationName(YadicRegister.class),
+                            type.getTypeName()));
+
+        if(isAbstract(subtype))
+            return () -> new AbstractTypeException(
+                    String.format("Type %s registered via %s in %s is abstract",
+                            subtype.getTypeName(),
+                            TypeUtils.getAnnotationName(YadicRegister.class),
+                            type.getTypeName()));
+
+        return null;
+    }
+
+    private static boolean isAbstract(Class<?> type)
+    {
+        return !type.isPrimitive() && (type.isInterface() || Modifier.isAbstract(
+                type.getModifiers()));
+    }
+}
@@ -1,22 +1,17 @@
 package com.github.refhumbold.yadic.utils;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Modifier;
-import com.github.refhumbold.yadic.annotation.YadicRegister;
-import com.github.refhumbold.yadic.annotation.YadicRegisterSelf;
 
 public final class TypeUtils
 {
     public static boolean isAbstractReferenceType(Class<?> type)
     {
-        return !type.isPrimitive() && (type.isInterface() || Modifier.isAbstract(
-                type.getModifiers()));
+        return TypeMetadata.of(type).isAbstract();
     }
 
     public static boolean isAnnotatedType(Class<?> type)
     {
-        return type.isAnnotationPresent(YadicRegister.class) || type.isAnnotationPresent(
-                YadicRegisterSelf.class);
+        return TypeMetadata.of(type).isAnnotated();
     }
 
     public static <A extends Annotation> String getAnnotationName(Class<A> annotationType)
@@ -1,4 +1,5 @@
 module yadic {
     exports com.github.refhumbold.yadic;
     exports com.github.refhumbold.yadic.annotation;
+    exports com.github.refhumbold.yadic.factory;
 }
@@ -1,9 +1,23 @@
 package com.github.refhumbold.yadic;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -15,12 +29,16 @@ import com.github.refhumbold.yadic.models.annotations.registerself.ClassRegister
 import com.github.refhumbold.yadic.models.constructors.ClassParameterizedConstructorBoxed;
 import com.github.refhumbold.yadic.models.constructors.ClassParameterizedConstructorPrimitive;
 import com.github.refhumbold.yadic.models.constructors.ClassParameterizedConstructorString;
+import com.github.refhumbold.yadic.models.constructors.ClassSlowConstructor;
 import com.github.refhumbold.yadic.models.constructors.annotation.ClassAnnotatedConstructor;
 import com.github.refhumbold.yadic.models.constructors.comparator.ClassAnnotatedConstructorsSorting;
 import com.github.refhumbold.yadic.models.constructors.comparator.ClassConstructorsSorting;
 import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircular;
+import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircularBarrier;
 import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircularLeft;
 import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircularRight;
+import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircularThreadsLeft;
+import com.github.refhumbold.yadic.models.dependencies.circular.ClassCircularThreadsRight;
 import com.github.refhumbold.yadic.models.dependencies.diamond.ClassDiamond;
 import com.github.refhumbold.yadic.models.dependencies.diamond.ClassDiamondLeft;
 import com.github.refhumbold.yadic.models.dependencies.diamond.ClassDiamondRight;
@@ -33,10 +51,22 @@ import com.github.refhumbold.yadic.models.inheritance.ClassAbstract;
 import com.github.refhumbold.yadic.models.inheritance.ClassConcrete;
 import com.github.refhumbold.yadic.models.inheritance.ClassConcreteDerived;
 import com.github.refhumbold.yadic.models.inheritance.InterfaceInheritance;
+import com.github.refhumbold.yadic.models.lazy.ClassLazyCircularLeft;
+import com.github.refhumbold.yadic.models.lazy.ClassLazyCircularRight;
+import com.github.refhumbold.yadic.models.lazy.ClassLazyConstructor;
+import com.github.refhumbold.yadic.models.lazy.ClassLazyDependency;
+import com.github.refhumbold.yadic.models.lazy.ClassLazySetter;
+import com.github.refhumbold.yadic.models.setter.ClassSetterCycleLeft;
+import com.github.refhumbold.yadic.models.setter.ClassSetterCycleRight;
 import com.github.refhumbold.yadic.models.setter.ClassSetterOnly;
 import com.github.refhumbold.yadic.models.setter.ClassSetterWithConstructor;
+import com.github.refhumbold.yadic.registry.exception.RegistrationException;
 import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.DependencyGraphException;
 import com.github.refhumbold.yadic.resolver.exception.MissingDependenciesException;
+import com.github.refhumbold.yadic.resolver.exception.ScopeException;
+import com.github.refhumbold.yadic.synthetic.GraphShape;
+import com.github.refhumbold.yadic.synthetic.SyntheticGraph;
 
 public class YadicContainerTest
 {
@@ -186,6 +216,25 @@ public class YadicContainerTest
         Assertions.assertThat(result2).isNotNull().isExactlyInstanceOf(subtype).isSameAs(result1);
     }
 
+    @Test
+    public void registerType_resolve_WhenInterfaceWithSingletonPolicyAndSubtypeRegistered_ThenSameInstance()
+    {
+        // given
+        Class<InterfaceInheritance> type = InterfaceInheritance.class;
+        Class<ClassConcrete> subtype = ClassConcrete.class;
+
+        // when
+        testObject.registerType(type, subtype, ConstructionPolicy.SINGLETON)
+                  .registerType(subtype, ConstructionPolicy.SINGLETON);
+
+        InterfaceInheritance result1 = testObject.resolve(type);
+        InterfaceInheritance result2 = testObject.resolve(type);
+
+        // then
+        Assertions.assertThat(result1).isNotNull().isExactlyInstanceOf(subtype);
+        Assertions.assertThat(result2).isNotNull().isExactlyInstanceOf(subtype).isSameAs(result1);
+    }
+
     @Test
     public void registerType_resolve_WhenInterfaceRegisteredAgainWithDifferentPolicy_ThenInstanceChanged()
     {
@@ -326,6 +375,23 @@ public class YadicContainerTest
                   .isInstanceOf(CircularDependenciesException.class);
     }
 
+    @Test
+    public void registerType_resolve_WhenCircular_ThenCyclePathInMessage()
+    {
+        // when
+        testObject.registerType(ClassCircular.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularRight.class, ConstructionPolicy.CONSTRUCTION);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassCircular.class))
+                  .isInstanceOf(CircularDependenciesException.class)
+                  .hasMessageContaining(String.format("%s -> %s -> %s",
+                          ClassCircularLeft.class.getTypeName(),
+                          ClassCircularRight.class.getTypeName(),
+                          ClassCircularLeft.class.getTypeName()));
+    }
+
     @Test
     public void registerType_resolve_WhenDiamondWithoutSingleton_ThenInstance()
     {
@@ -709,89 +775,1050 @@ public class YadicContainerTest
         Assertions.assertThat(result.getLinear().getFirst().getSecond()).isNull();
     }
 
+    @Test
+    public void resolve_WhenSetterCycleOfNewInstances_ThenCircularDependenciesException()
+    {
+        // given
+        testObject.registerType(ClassSetterCycleLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassSetterCycleRight.class, ConstructionPolicy.CONSTRUCTION);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassSetterCycleLeft.class))
+                  .isInstanceOf(CircularDependenciesException.class)
+                  .hasMessageContaining(String.format("%s -> %s -> %s",
+                          ClassSetterCycleLeft.class.getTypeName(),
+                          ClassSetterCycleRight.class.getTypeName(),
+                          ClassSetterCycleLeft.class.getTypeName()));
+    }
+
+    @Test
+    public void resolve_WhenSetterCycleOfSingletons_ThenInstancesReferEachOther()
+    {
+        // given
+        testObject.registerType(ClassSetterCycleLeft.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassSetterCycleRight.class, ConstructionPolicy.SINGLETON);
+
+        // when
+        ClassSetterCycleLeft result = testObject.resolve(ClassSetterCycleLeft.class);
+
+        // then
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getRight()).isNotNull();
+        Assertions.assertThat(result.getRight().getLeft()).isSameAs(result);
+    }
+
     // endregion
-    // region resolveOrNull
+    // region resolve [allocations]
 
     @Test
-    public void resolveOrNull_WhenTypeRegistered_ThenTypeInstance()
+    public void resolve_WhenResolvedRepeatedly_ThenNoExceptionsAllocated()
     {
         // given
-        Class<InterfaceInheritance> type = InterfaceInheritance.class;
-        Class<ClassConcrete> subtype = ClassConcrete.class;
+        int iterations = 10000;
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
 
-        testObject.registerType(type, subtype, ConstructionPolicy.CONSTRUCTION);
+        Assumptions.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemoryEnabled());
+
+        com.sun.management.ThreadMXBean allocationBean =
+                (com.sun.management.ThreadMXBean)threadBean;
+        long threadId = Thread.currentThread().threadId();
+
+        testObject.registerType(ClassDiamond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.CONSTRUCTION);
+
+        for(int i = 0; i < iterations; ++i)
+            testObject.resolve(ClassDiamond.class);
 
         // when
-        InterfaceInheritance result = testObject.resolveOrNull(type);
+        long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+
+        for(int i = 0; i < iterations; ++i)
+            testObject.resolve(ClassDiamond.class);
+
+        long allocatedAfter = allocationBean.getThreadAllocatedBytes(threadId);
 
         // then
-        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(subtype);
+        // a single exception with its stack trace takes more than a kilobyte
+        Assertions.assertThat((allocatedAfter - allocatedBefore) / iterations < 2048).isTrue();
     }
 
+    // endregion
+    // region resolve [lazy dependencies]
+
     @Test
-    public void resolveOrNull_WhenInstanceRegistered_ThenThisInstance()
+    public void resolve_WhenConstructorTakesProvider_ThenDependencyResolvedOnFirstGet()
     {
         // given
-        Class<ClassConcrete> type = ClassConcrete.class;
-        ClassConcrete instance = new ClassConcrete();
+        int instancesCount = ClassLazyDependency.instancesCount.get();
 
-        testObject.registerInstance(type, instance);
+        testObject.registerType(ClassLazyDependency.class, ConstructionPolicy.CONSTRUCTION);
 
         // when
-        ClassConcrete result = testObject.resolveOrNull(type);
+        ClassLazyConstructor result = testObject.resolve(ClassLazyConstructor.class);
 
         // then
-        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(type).isSameAs(instance);
+        Assertions.assertThat(ClassLazyDependency.instancesCount.get()).isEqualTo(instancesCount);
+
+        ClassLazyDependency dependency = result.getDependency().get();
+
+        Assertions.assertThat(dependency).isNotNull();
+        Assertions.assertThat(result.getDependency().get()).isSameAs(dependency);
+        Assertions.assertThat(ClassLazyDependency.instancesCount.get())
+                  .isEqualTo(instancesCount + 1);
     }
 
     @Test
-    public void resolveOrNull_WhenAnnotatedType_ThenTypeInstance()
+    public void resolve_WhenSetterTakesSupplier_ThenDependencyResolvedOnFirstGet()
     {
+        // given
+        int instancesCount = ClassLazyDependency.instancesCount.get();
+
+        testObject.registerType(ClassLazyDependency.class, ConstructionPolicy.CONSTRUCTION);
+
         // when
-        ClassRegister result = testObject.resolveOrNull(ClassRegister.class);
+        ClassLazySetter result = testObject.resolve(ClassLazySetter.class);
 
         // then
-        Assertions.assertThat(result)
+        Assertions.assertThat(ClassLazyDependency.instancesCount.get()).isEqualTo(instancesCount);
+        Assertions.assertThat(result.getDependency().get()).isNotNull();
+        Assertions.assertThat(ClassLazyDependency.instancesCount.get())
+                  .isEqualTo(instancesCount + 1);
+    }
+
+    @Test
+    public void resolve_WhenLazyTargetMissing_ThenMissingDependenciesException()
+    {
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassLazyConstructor.class))
+                  .isInstanceOf(MissingDependenciesException.class);
+    }
+
+    @Test
+    public void resolve_WhenCycleBrokenByProvider_ThenInstance()
+    {
+        // given
+        testObject.registerType(ClassLazyCircularLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassLazyCircularRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .validate();
+
+        // when
+        ClassLazyCircularLeft result = testObject.resolve(ClassLazyCircularLeft.class);
+
+        // then
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getRight().get()).isNotNull();
+        Assertions.assertThat(result.getRight().get().getLeft())
                   .isNotNull()
-                  .isExactlyInstanceOf(ClassDerivedFromRegister.class);
+                  .isNotSameAs(result);
     }
 
+    // endregion
+    // region resolve [concurrency]
+
     @Test
-    public void resolveOrNull_WhenSelfAnnotatedType_ThenTypeInstance()
+    public void resolve_WhenManyThreadsResolve_ThenConsistentInstances()
+            throws Exception
     {
         // given
-        Class<ClassRegisterSelf> type = ClassRegisterSelf.class;
+        int threadsCount = 16;
+        int iterations = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Set<ClassDiamondTop>>> futures = new ArrayList<>();
+
+        testObject.registerType(ClassDiamond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.SINGLETON);
 
         // when
-        ClassRegisterSelf result = testObject.resolveOrNull(type);
+        for(int i = 0; i < threadsCount; ++i)
+            futures.add(executor.submit(() -> {
+                Set<ClassDiamondTop> tops = Collections.newSetFromMap(new IdentityHashMap<>());
+
+                startLatch.await();
+
+                for(int j = 0; j < iterations; ++j)
+                {
+                    ClassDiamond diamond = testObject.resolve(ClassDiamond.class);
+
+                    tops.add(diamond.getLeft().getTop());
+                    tops.add(diamond.getRight().getTop());
+                    testObject.resolve(ClassRegister.class);
+                    testObject.resolve(ClassRegisterSelfSingleton.class);
+                }
+
+                return tops;
+            }));
+
+        startLatch.countDown();
+
+        Set<ClassDiamondTop> result = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for(Future<Set<ClassDiamondTop>> future : futures)
+            result.addAll(future.get(1, TimeUnit.MINUTES));
+
+        executor.shutdown();
 
         // then
-        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(type);
+        Assertions.assertThat(result).hasSize(1);
+        Assertions.assertThat(testObject.resolve(ClassDiamondTop.class))
+                  .isSameAs(result.iterator().next());
     }
 
-    @ParameterizedTest
-    @ValueSource(classes = {
-            ClassParameterizedConstructorString.class, ClassParameterizedConstructorBoxed.class,
-            ClassParameterizedConstructorPrimitive.class
-    })
-    public void resolveOrNull_WhenTypeHasMissingDependencies_ThenNull(Class<?> cls)
+    @Test
+    public void resolve_WhenManyThreadsResolveSingleton_ThenConstructedOnce()
+            throws Exception
     {
+        // given
+        int threadsCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<ClassSlowConstructor>> futures = new ArrayList<>();
+
+        ClassSlowConstructor.instancesCount.set(0);
+        testObject.registerType(ClassSlowConstructor.class, ConstructionPolicy.SINGLETON);
+
         // when
-        Object result = testObject.resolveOrNull(cls);
+        for(int i = 0; i < threadsCount; ++i)
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                return testObject.resolve(ClassSlowConstructor.class);
+            }));
+
+        startLatch.countDown();
+
+        List<ClassSlowConstructor> result = new ArrayList<>();
+
+        for(Future<ClassSlowConstructor> future : futures)
+            result.add(future.get(1, TimeUnit.MINUTES));
+
+        executor.shutdown();
 
         // then
-        Assertions.assertThat(result).isNull();
+        Assertions.assertThat(ClassSlowConstructor.instancesCount.get()).isEqualTo(1);
+        Assertions.assertThat(result.stream().distinct().toList()).hasSize(1);
     }
 
-    @ParameterizedTest
-    @ValueSource(classes = { InterfaceInheritance.class, ClassAbstract.class, int.class })
-    public void resolveOrNull_WhenTypeCannotBeResolved_ThenNull(Class<?> cls)
+    @Test
+    public void resolve_WhenThreadsConstructSingletonsOfEachOther_ThenCircularDependenciesException()
+            throws Exception
     {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = new ArrayList<>();
+
+        testObject.registerType(ClassCircularBarrier.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularThreadsLeft.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassCircularThreadsRight.class, ConstructionPolicy.SINGLETON);
+
         // when
-        Object result = testObject.resolveOrNull(cls);
+        futures.add(executor.submit(() -> testObject.resolve(ClassCircularThreadsLeft.class)));
+        futures.add(executor.submit(() -> testObject.resolve(ClassCircularThreadsRight.class)));
+
+        List<Throwable> result = new ArrayList<>();
+
+        for(Future<?> future : futures)
+            try
+            {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            catch(ExecutionException e)
+            {
+                result.add(e.getCause());
+            }
+
+        executor.shutdown();
 
         // then
-        Assertions.assertThat(result).isNull();
+        Assertions.assertThat(result).hasSize(2);
+        Assertions.assertThat(
+                result.stream().allMatch(CircularDependenciesException.class::isInstance)).isTrue();
+    }
+
+    // endregion
+    // region resolve [synthetic graphs]
+
+    @Test
+    public void resolve_WhenThousandsOfGeneratedClasses_ThenAllRootsResolved()
+    {
+        // given
+        SyntheticGraph graph =
+                SyntheticGraph.generate(new GraphShape(5, 400, 4, 2, 0.3, 0.5, 20L));
+
+        graph.registerIn(testObject).validate();
+
+        // when
+        List<Object> result = graph.roots().stream().<Object>map(testObject::resolve).toList();
+
+        // then
+        Assertions.assertThat(graph.registrations()).hasSize(2 * graph.shape().size());
+        Assertions.assertThat(result).hasSize(400).doesNotContainNull();
+
+        for(int i = 0; i < result.size(); ++i)
+            Assertions.assertThat(result.get(i)).isInstanceOf(graph.roots().get(i));
+    }
+
+    @Test
+    public void resolve_WhenManyThreadsResolveGeneratedGraph_ThenSingletonsShared()
+            throws Exception
+    {
+        // given
+        int threadsCount = 8;
+        SyntheticGraph graph =
+                SyntheticGraph.generate(new GraphShape(10, 20, 3, 1, 0.3, 0.5, 10L));
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<List<Object>>> futures = new ArrayList<>();
+        List<Class<?>> singletons = graph.registrations()
+                                         .stream()
+                                         .filter(r -> r.policy() == ConstructionPolicy.SINGLETON)
+                                         .<Class<?>>map(SyntheticGraph.Registration::type)
+                                         .toList();
+
+        graph.registerIn(testObject);
+
+        // when
+        for(int i = 0; i < threadsCount; ++i)
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+
+                for(Class<?> root : graph.roots())
+                    testObject.resolve(root);
+
+                return singletons.stream().<Object>map(testObject::resolve).toList();
+            }));
+
+        startLatch.countDown();
+
+        List<List<Object>> result = new ArrayList<>();
+
+        for(Future<List<Object>> future : futures)
+            result.add(future.get(1, TimeUnit.MINUTES));
+
+        executor.shutdown();
+
+        // then
+        Assertions.assertThat(singletons).isNotEmpty();
+
+        for(List<Object> instances : result)
+            for(int i = 0; i < singletons.size(); ++i)
+                Assertions.assertThat(instances.get(i)).isSameAs(result.get(0).get(i));
+    }
+
+    // endregion
+    // region resolve [scopes]
+
+    @Test
+    public void resolve_WhenSoftSingletonPolicy_ThenSameInstance()
+    {
+        // given
+        testObject.registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.SOFT_SINGLETON);
+
+        // when
+        ClassDiamondLeft result1 = testObject.resolve(ClassDiamondLeft.class);
+        ClassDiamondLeft result2 = testObject.resolve(ClassDiamondLeft.class);
+
+        // then
+        Assertions.assertThat(result1.getTop()).isNotNull().isSameAs(result2.getTop());
+    }
+
+    @Test
+    public void resolve_WhenThreadPolicy_ThenSameInstanceInThreadOnly()
+            throws Exception
+    {
+        // given
+        testObject.registerType(ClassDiamondTop.class, ConstructionPolicy.THREAD);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when
+        ClassDiamondTop result1 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result3 =
+                executor.submit(() -> testObject.resolve(ClassDiamondTop.class))
+                        .get(1, TimeUnit.MINUTES);
+
+        executor.shutdown();
+
+        // then
+        Assertions.assertThat(result1).isNotNull().isSameAs(result2);
+        Assertions.assertThat(result3).isNotNull().isNotSameAs(result1);
+    }
+
+    @Test
+    public void resolve_WhenThreadInstancesCleared_ThenNewInstance()
+    {
+        // given
+        testObject.registerType(ClassDiamondTop.class, ConstructionPolicy.THREAD);
+
+        ClassDiamondTop result1 = testObject.resolve(ClassDiamondTop.class);
+
+        // when
+        testObject.clearThreadInstances();
+
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result3 = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(result2).isNotNull().isNotSameAs(result1).isSameAs(result3);
+    }
+
+    @Test
+    public void resolve_WhenScopedPolicy_ThenSameInstanceInScopeOnly()
+    {
+        // given
+        testObject.registerType(ClassDiamond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.SCOPED);
+
+        // when
+        ClassDiamond result1;
+        ClassDiamond result2;
+        ClassDiamond result3;
+
+        try(YadicScope scope = testObject.openScope())
+        {
+            result1 = scope.resolve(ClassDiamond.class);
+            result2 = scope.resolve(ClassDiamond.class);
+        }
+
+        try(YadicScope scope = testObject.openScope())
+        {
+            result3 = scope.resolve(ClassDiamond.class);
+        }
+
+        // then
+        Assertions.assertThat(result1).isNotSameAs(result2);
+        Assertions.assertThat(result1.getLeft().getTop()).isNotNull()
+                  .isSameAs(result1.getRight().getTop())
+                  .isSameAs(result2.getLeft().getTop());
+        Assertions.assertThat(result3.getLeft().getTop())
+                  .isNotSameAs(result1.getLeft().getTop());
+    }
+
+    @Test
+    public void resolve_WhenPerResolutionPolicy_ThenSameInstanceInOneResolution()
+    {
+        // given
+        testObject.registerType(ClassDiamond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.PER_RESOLUTION);
+
+        // when
+        ClassDiamond result1 = testObject.resolve(ClassDiamond.class);
+        ClassDiamond result2 = testObject.resolve(ClassDiamond.class);
+
+        // then
+        Assertions.assertThat(result1.getLeft().getTop()).isNotNull()
+                  .isSameAs(result1.getRight().getTop());
+        Assertions.assertThat(result2.getLeft().getTop()).isSameAs(result2.getRight().getTop())
+                  .isNotSameAs(result1.getLeft().getTop());
+    }
+
+    @Test
+    public void resolve_WhenScopedPolicyOutsideScope_ThenScopeException()
+    {
+        // given
+        testObject.registerType(ClassDiamondTop.class, ConstructionPolicy.SCOPED);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassDiamondTop.class))
+                  .isInstanceOf(ScopeException.class);
+        Assertions.assertThat(testObject.tryResolve(ClassDiamondTop.class).isPresent()).isFalse();
+    }
+
+    @Test
+    public void resolve_WhenScopeClosed_ThenScopeException()
+    {
+        // given
+        testObject.registerType(ClassDiamondTop.class, ConstructionPolicy.SCOPED);
+
+        YadicScope scope = testObject.openScope();
+
+        scope.resolve(ClassDiamondTop.class);
+
+        // when
+        scope.close();
+
+        // then
+        Assertions.assertThat(scope.isOpen()).isFalse();
+        Assertions.assertThatThrownBy(() -> scope.resolve(ClassDiamondTop.class))
+                  .isInstanceOf(ScopeException.class);
+    }
+
+    // endregion
+    // region resolve [pools]
+
+    @Test
+    public void resolve_WhenPooledInstanceReleased_ThenResetAndReused()
+    {
+        // given
+        List<ClassDiamondTop> resetInstances = new ArrayList<>();
+
+        testObject.registerPooled(ClassDiamondTop.class, 4, resetInstances::add);
+
+        ClassDiamondTop released = testObject.resolve(ClassDiamondTop.class);
+
+        // when
+        boolean result1 = testObject.release(released);
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result3 = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(result1).isTrue();
+        Assertions.assertThat(resetInstances).containsExactly(released);
+        Assertions.assertThat(result2).isSameAs(released);
+        Assertions.assertThat(result3).isNotNull().isNotSameAs(released);
+    }
+
+    @Test
+    public void resolve_WhenAliasOfPooledTypeRegistered_ThenPoolKept()
+    {
+        // given
+        List<ClassConcrete> resetInstances = new ArrayList<>();
+
+        testObject.registerPooled(ClassConcrete.class, 1, resetInstances::add)
+                  .registerType(InterfaceInheritance.class, ClassConcrete.class,
+                          ConstructionPolicy.POOLED);
+
+        InterfaceInheritance instance1 = testObject.resolve(InterfaceInheritance.class);
+        InterfaceInheritance instance2 = testObject.resolve(InterfaceInheritance.class);
+
+        // when
+        boolean result1 = testObject.release(instance1);
+        boolean result2 = testObject.release(instance2);
+        InterfaceInheritance result3 = testObject.resolve(InterfaceInheritance.class);
+        ClassConcrete result4 = testObject.resolve(ClassConcrete.class);
+
+        // then
+        Assertions.assertThat(result1).isTrue();
+        Assertions.assertThat(result2).isFalse();
+        Assertions.assertThat(resetInstances).containsExactly(instance1, instance2);
+        Assertions.assertThat(result3).isSameAs(instance1);
+        Assertions.assertThat(result4).isNotNull().isNotSameAs(instance1);
+    }
+
+    @Test
+    public void resolve_WhenPooledSupertypeReleased_ThenInstanceReused()
+    {
+        // given
+        testObject.registerPooled(InterfaceInheritance.class, ClassConcrete.class, 2, null);
+
+        InterfaceInheritance released = testObject.resolve(InterfaceInheritance.class);
+
+        // when
+        boolean result1 = testObject.release(released);
+        InterfaceInheritance result2 = testObject.resolve(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result1).isTrue();
+        Assertions.assertThat(result2).isSameAs(released);
+    }
+
+    @Test
+    public void release_WhenPoolFull_ThenInstanceDropped()
+    {
+        // given
+        testObject.registerPooled(ClassDiamondTop.class, 1, null);
+
+        ClassDiamondTop instance1 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop instance2 = testObject.resolve(ClassDiamondTop.class);
+
+        // when
+        boolean result1 = testObject.release(instance1);
+        boolean result2 = testObject.release(instance2);
+
+        // then
+        Assertions.assertThat(result1).isTrue();
+        Assertions.assertThat(result2).isFalse();
+    }
+
+    @Test
+    public void release_WhenTypeNotPooled_ThenInstanceDropped()
+    {
+        // given
+        testObject.registerType(ClassDiamondTop.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        boolean result = testObject.release(testObject.resolve(ClassDiamondTop.class));
+
+        // then
+        Assertions.assertThat(result).isFalse();
+    }
+
+    @Test
+    public void resolve_WhenScopeWithPooledInstancesClosed_ThenInstancesReleased()
+    {
+        // given
+        testObject.registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.POOLED);
+
+        ClassDiamondLeft left;
+
+        try(YadicScope scope = testObject.openScope())
+        {
+            left = scope.resolve(ClassDiamondLeft.class);
+        }
+
+        // when
+        ClassDiamondTop result = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(result).isSameAs(left.getTop());
+    }
+
+    @Test
+    public void release_WhenPooledInstanceReleasedInScope_ThenNotReleasedAgainOnClose()
+    {
+        // given
+        testObject.registerPooled(ClassDiamondTop.class, 2, null);
+
+        ClassDiamondTop instance;
+        boolean result1;
+
+        try(YadicScope scope = testObject.openScope())
+        {
+            instance = scope.resolve(ClassDiamondTop.class);
+            result1 = testObject.release(instance);
+        }
+
+        // when
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result3 = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(result1).isTrue();
+        Assertions.assertThat(result2).isSameAs(instance);
+        Assertions.assertThat(result3).isNotNull().isNotSameAs(result2);
+    }
+
+    // endregion
+    // region resolve [refreshed singletons]
+
+    @Test
+    public void resolve_WhenTimeToLivePassed_ThenCurrentInstanceUntilRefreshed()
+    {
+        // given
+        List<Runnable> refreshes = new ArrayList<>();
+
+        testObject.registerRefreshed(ClassDiamondTop.class, Duration.ofNanos(1), refreshes::add);
+
+        ClassDiamondTop instance = testObject.resolve(ClassDiamondTop.class);
+
+        // when
+        ClassDiamondTop result1 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+
+        refreshes.get(0).run();
+
+        ClassDiamondTop result3 = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(refreshes).hasSize(2);
+        Assertions.assertThat(result1).isSameAs(instance);
+        Assertions.assertThat(result2).isSameAs(instance);
+        Assertions.assertThat(result3).isNotNull().isNotSameAs(instance);
+    }
+
+    @Test
+    public void resolve_WhenTimeToLiveNotPassed_ThenNoRefresh()
+    {
+        // given
+        List<Runnable> refreshes = new ArrayList<>();
+
+        testObject.registerRefreshed(ClassDiamondTop.class, Duration.ofHours(1), refreshes::add);
+
+        // when
+        ClassDiamondTop result1 = testObject.resolve(ClassDiamondTop.class);
+        ClassDiamondTop result2 = testObject.resolve(ClassDiamondTop.class);
+
+        // then
+        Assertions.assertThat(refreshes).isEmpty();
+        Assertions.assertThat(result1).isNotNull().isSameAs(result2);
+    }
+
+    @Test
+    public void resolve_WhenRefreshedSupertypeAndSubtypeRegistered_ThenCachedAndRefreshed()
+    {
+        // given
+        List<Runnable> refreshes = new ArrayList<>();
+
+        testObject.registerType(ClassConcrete.class, ConstructionPolicy.SINGLETON)
+                  .registerRefreshed(InterfaceInheritance.class, ClassConcrete.class,
+                          Duration.ofNanos(1), refreshes::add);
+
+        InterfaceInheritance instance = testObject.resolve(InterfaceInheritance.class);
+
+        // when
+        InterfaceInheritance result1 = testObject.resolve(InterfaceInheritance.class);
+
+        refreshes.get(0).run();
+
+        InterfaceInheritance result2 = testObject.resolve(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(refreshes).hasSize(2);
+        Assertions.assertThat(result1).isSameAs(instance);
+        Assertions.assertThat(result2)
+                  .isNotNull()
+                  .isExactlyInstanceOf(ClassConcrete.class)
+                  .isNotSameAs(instance);
+    }
+
+    @Test
+    public void registerRefreshed_WhenTimeToLiveNotPositive_ThenRegistrationException()
+    {
+        Assertions.assertThatThrownBy(
+                          () -> testObject.registerRefreshed(ClassDiamondTop.class, Duration.ZERO,
+                                  Runnable::run))
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    // endregion
+    // region freeze
+
+    @Test
+    public void freeze_registerType_WhenFrozen_ThenRegistrationException()
+    {
+        // given
+        testObject.freeze();
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.registerType(ClassConcrete.class,
+                          ConstructionPolicy.CONSTRUCTION))
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    @Test
+    public void freeze_resolve_WhenFrozen_ThenResolvedAsBefore()
+    {
+        // given
+        testObject.registerType(InterfaceInheritance.class, ClassConcrete.class,
+                          ConstructionPolicy.SINGLETON)
+                  .registerType(ClassSetterOnly.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerInstance(ClassLinearFirst.class, new ClassLinearFirst(null))
+                  .freeze();
+
+        // when
+        ClassSetterOnly result1 = testObject.resolve(ClassSetterOnly.class);
+        ClassSetterOnly result2 = testObject.resolve(ClassSetterOnly.class);
+        ClassRegisterSelfSingleton result3 = testObject.resolve(ClassRegisterSelfSingleton.class);
+        ClassRegisterSelfSingleton result4 = testObject.resolve(ClassRegisterSelfSingleton.class);
+
+        // then
+        Assertions.assertThat(result1).isNotNull().isNotSameAs(result2);
+        Assertions.assertThat(result1.getInheritance())
+                  .isNotNull()
+                  .isExactlyInstanceOf(ClassConcrete.class)
+                  .isSameAs(result2.getInheritance());
+        Assertions.assertThat(result1.getLinear()).isNotNull();
+        Assertions.assertThat(result3).isNotNull().isSameAs(result4);
+    }
+
+    // endregion
+    // region validate & warmUp
+
+    @Test
+    public void validate_WhenAllTypesResolvable_ThenNoException()
+    {
+        // given
+        testObject.registerType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassLinearFirst.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassLinearSecond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassLinearThird.class, ConstructionPolicy.CONSTRUCTION)
+                  .validate();
+
+        // when
+        ClassLinear result = testObject.resolve(ClassLinear.class);
+
+        // then
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getFirst().getSecond().getThird()).isNotNull();
+    }
+
+    @Test
+    public void validate_WhenManyProblems_ThenAllProblemsReported()
+    {
+        // given
+        testObject.registerType(ClassCircular.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularRight.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassParameterizedConstructorString.class,
+                          ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        Throwable throwable = Assertions.catchThrowable(() -> testObject.validate());
+
+        // then
+        Assertions.assertThat(throwable).isInstanceOf(DependencyGraphException.class);
+
+        List<YadicException> problems = ((DependencyGraphException)throwable).getProblems();
+
+        Assertions.assertThat(problems).hasSize(2);
+        Assertions.assertThat(problems.stream()
+                                      .anyMatch(CircularDependenciesException.class::isInstance))
+                  .isTrue();
+        Assertions.assertThat(problems.stream()
+                                      .anyMatch(MissingDependenciesException.class::isInstance))
+                  .isTrue();
+    }
+
+    @Test
+    public void warmUp_WhenRootsResolvable_ThenNoInstanceConstructed()
+    {
+        // given
+        int instancesCount = ClassSlowConstructor.instancesCount.get();
+
+        testObject.registerType(ClassSlowConstructor.class, ConstructionPolicy.SINGLETON);
+
+        // when
+        testObject.warmUp(ClassSlowConstructor.class, ClassRegisterSelf.class);
+
+        // then
+        Assertions.assertThat(ClassSlowConstructor.instancesCount.get())
+                  .isEqualTo(instancesCount);
+        Assertions.assertThat(testObject.resolve(ClassSlowConstructor.class)).isNotNull();
+    }
+
+    @Test
+    public void warmUp_WhenRootHasMissingDependency_ThenDependencyGraphException()
+    {
+        Assertions.assertThatThrownBy(
+                          () -> testObject.warmUp(ClassParameterizedConstructorString.class))
+                  .isInstanceOf(DependencyGraphException.class)
+                  .hasMessageContaining(String.class.getTypeName());
+    }
+
+    // endregion
+    // region instantiateSingletons
+
+    @Test
+    public void instantiateSingletons_WhenSingletonsRegistered_ThenEachConstructedOnce()
+    {
+        // given
+        int instancesCount = ClassSlowConstructor.instancesCount.get();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        testObject.registerType(ClassDiamond.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondLeft.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassDiamondRight.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassSlowConstructor.class, ConstructionPolicy.SINGLETON);
+
+        // when
+        testObject.instantiateSingletons(executor);
+        executor.shutdown();
+
+        ClassDiamond result = testObject.resolve(ClassDiamond.class);
+
+        // then
+        Assertions.assertThat(ClassSlowConstructor.instancesCount.get())
+                  .isEqualTo(instancesCount + 1);
+        Assertions.assertThat(testObject.resolve(ClassSlowConstructor.class)).isNotNull();
+        Assertions.assertThat(ClassSlowConstructor.instancesCount.get())
+                  .isEqualTo(instancesCount + 1);
+        Assertions.assertThat(result.getLeft())
+                  .isSameAs(testObject.resolve(ClassDiamondLeft.class));
+        Assertions.assertThat(result.getRight())
+                  .isSameAs(testObject.resolve(ClassDiamondRight.class));
+        Assertions.assertThat(result.getLeft().getTop())
+                  .isSameAs(result.getRight().getTop())
+                  .isSameAs(testObject.resolve(ClassDiamondTop.class));
+    }
+
+    @Test
+    public void instantiateSingletons_WhenMissingDependency_ThenNoSingletonConstructed()
+    {
+        // given
+        int instancesCount = ClassSlowConstructor.instancesCount.get();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        testObject.registerType(ClassSlowConstructor.class, ConstructionPolicy.SINGLETON)
+                  .registerType(ClassParameterizedConstructorString.class,
+                          ConstructionPolicy.SINGLETON);
+
+        // when
+        Throwable throwable =
+                Assertions.catchThrowable(() -> testObject.instantiateSingletons(executor));
+
+        executor.shutdown();
+
+        // then
+        Assertions.assertThat(throwable).isInstanceOf(DependencyGraphException.class);
+        Assertions.assertThat(ClassSlowConstructor.instancesCount.get())
+                  .isEqualTo(instancesCount);
+    }
+
+    // endregion
+    // region resolveOrNull
+
+    @Test
+    public void resolveOrNull_WhenTypeRegistered_ThenTypeInstance()
+    {
+        // given
+        Class<InterfaceInheritance> type = InterfaceInheritance.class;
+        Class<ClassConcrete> subtype = ClassConcrete.class;
+
+        testObject.registerType(type, subtype, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        InterfaceInheritance result = testObject.resolveOrNull(type);
+
+        // then
+        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(subtype);
+    }
+
+    @Test
+    public void resolveOrNull_WhenInstanceRegistered_ThenThisInstance()
+    {
+        // given
+        Class<ClassConcrete> type = ClassConcrete.class;
+        ClassConcrete instance = new ClassConcrete();
+
+        testObject.registerInstance(type, instance);
+
+        // when
+        ClassConcrete result = testObject.resolveOrNull(type);
+
+        // then
+        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(type).isSameAs(instance);
+    }
+
+    @Test
+    public void resolveOrNull_WhenAnnotatedType_ThenTypeInstance()
+    {
+        // when
+        ClassRegister result = testObject.resolveOrNull(ClassRegister.class);
+
+        // then
+        Assertions.assertThat(result)
+                  .isNotNull()
+                  .isExactlyInstanceOf(ClassDerivedFromRegister.class);
+    }
+
+    @Test
+    public void resolveOrNull_WhenSelfAnnotatedType_ThenTypeInstance()
+    {
+        // given
+        Class<ClassRegisterSelf> type = ClassRegisterSelf.class;
+
+        // when
+        ClassRegisterSelf result = testObject.resolveOrNull(type);
+
+        // then
+        Assertions.assertThat(result).isNotNull().isExactlyInstanceOf(type);
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = {
+            ClassParameterizedConstructorString.class, ClassParameterizedConstructorBoxed.class,
+            ClassParameterizedConstructorPrimitive.class
+    })
+    public void resolveOrNull_WhenTypeHasMissingDependencies_ThenNull(Class<?> cls)
+    {
+        // when
+        Object result = testObject.resolveOrNull(cls);
+
+        // then
+        Assertions.assertThat(result).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = { InterfaceInheritance.class, ClassAbstract.class, int.class })
+    public void resolveOrNull_WhenTypeCannotBeResolved_ThenNull(Class<?> cls)
+    {
+        // when
+        Object result = testObject.resolveOrNull(cls);
+
+        // then
+        Assertions.assertThat(result).isNull();
+    }
+
+    // endregion
+    // region tryResolve
+
+    @Test
+    public void tryResolve_WhenTypeRegistered_ThenTypeInstance()
+    {
+        // given
+        testObject.registerType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        Optional<InterfaceInheritance> result = testObject.tryResolve(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result.isPresent()).isTrue();
+        Assertions.assertThat(result.get()).isExactlyInstanceOf(ClassConcrete.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = {
+            InterfaceInheritance.class, ClassAbstract.class, int.class,
+            ClassParameterizedConstructorString.class, ClassCircular.class
+    })
+    public void tryResolve_WhenTypeCannotBeResolved_ThenEmpty(Class<?> cls)
+    {
+        // given
+        testObject.registerType(ClassCircular.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassCircularRight.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        Optional<?> result1 = testObject.tryResolve(cls);
+        Optional<?> result2 = testObject.tryResolve(cls);
+
+        // then
+        Assertions.assertThat(result1.isPresent()).isFalse();
+        Assertions.assertThat(result2.isPresent()).isFalse();
+    }
+
+    @Test
+    public void tryResolve_WhenRegisteredAfterFailedAttempt_ThenTypeInstance()
+    {
+        // given
+        Optional<InterfaceInheritance> result1 = testObject.tryResolve(InterfaceInheritance.class);
+
+        testObject.registerType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        Optional<InterfaceInheritance> result2 = testObject.tryResolve(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result1.isPresent()).isFalse();
+        Assertions.assertThat(result2.isPresent()).isTrue();
+    }
+
+    @Test
+    public void tryResolve_WhenDependsOnScopedType_ThenInstanceOnlyInScope()
+    {
+        // given
+        testObject.registerType(ClassDiamondLeft.class, ConstructionPolicy.CONSTRUCTION)
+                  .registerType(ClassDiamondTop.class, ConstructionPolicy.SCOPED);
+
+        // when
+        Optional<ClassDiamondLeft> result1 = testObject.tryResolve(ClassDiamondLeft.class);
+        Optional<ClassDiamondLeft> result2 = testObject.tryResolve(ClassDiamondLeft.class);
+        Optional<ClassDiamondLeft> result3;
+
+        try(YadicScope scope = testObject.openScope())
+        {
+            result3 = scope.tryResolve(ClassDiamondLeft.class);
+        }
+
+        // then
+        Assertions.assertThat(result1.isPresent()).isFalse();
+        Assertions.assertThat(result2.isPresent()).isFalse();
+        Assertions.assertThat(result3.isPresent()).isTrue();
+        Assertions.assertThat(result3.get().getTop()).isNotNull();
     }
 
     // endregion
@@ -0,0 +1,9 @@
+package com.github.refhumbold.yadic.models.constructors;
+
+public class ClassConstructorThrowsError
+{
+    public ClassConstructorThrowsError()
+    {
+        throw new AssertionError();
+    }
+}
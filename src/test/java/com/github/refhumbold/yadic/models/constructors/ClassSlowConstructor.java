@@ -0,0 +1,15 @@
+package com.github.refhumbold.yadic.models.constructors;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClassSlowConstructor
+{
+    public static final AtomicInteger instancesCount = new AtomicInteger();
+
+    public ClassSlowConstructor()
+            throws InterruptedException
+    {
+        instancesCount.incrementAndGet();
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.refhumbold.yadic.models.constructors.comparator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClassConstructorThrowsFallback
+{
+    public static final AtomicInteger failedInvocations = new AtomicInteger();
+
+    public ClassConstructorThrowsFallback(ClassFallbackDependency dependency)
+    {
+        failedInvocations.incrementAndGet();
+        throw new UnsupportedOperationException();
+    }
+
+    public ClassConstructorThrowsFallback()
+    {
+    }
+}
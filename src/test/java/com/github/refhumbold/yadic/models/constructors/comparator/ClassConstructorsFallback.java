@@ -0,0 +1,31 @@
+package com.github.refhumbold.yadic.models.constructors.comparator;
+
+import com.github.refhumbold.yadic.models.inheritance.InterfaceInheritance;
+
+public class ClassConstructorsFallback
+{
+    private final ClassFallbackDependency dependency;
+    private final InterfaceInheritance inheritance;
+
+    public ClassConstructorsFallback(
+            ClassFallbackDependency dependency, InterfaceInheritance inheritance)
+    {
+        this.dependency = dependency;
+        this.inheritance = inheritance;
+    }
+
+    public ClassConstructorsFallback(ClassFallbackDependency dependency)
+    {
+        this(dependency, null);
+    }
+
+    public ClassFallbackDependency getDependency()
+    {
+        return dependency;
+    }
+
+    public InterfaceInheritance getInheritance()
+    {
+        return inheritance;
+    }
+}
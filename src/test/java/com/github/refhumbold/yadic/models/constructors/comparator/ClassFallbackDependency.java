@@ -0,0 +1,13 @@
+package com.github.refhumbold.yadic.models.constructors.comparator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClassFallbackDependency
+{
+    public static final AtomicInteger instancesCount = new AtomicInteger();
+
+    public ClassFallbackDependency()
+    {
+        instancesCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.refhumbold.yadic.models.dependencies.circular;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+public class ClassCircularBarrier
+{
+    public static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+    public ClassCircularBarrier()
+            throws Exception
+    {
+        barrier.await(10, TimeUnit.SECONDS);
+    }
+}
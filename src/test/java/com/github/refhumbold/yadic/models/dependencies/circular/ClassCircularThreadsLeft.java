@@ -0,0 +1,16 @@
+package com.github.refhumbold.yadic.models.dependencies.circular;
+
+public class ClassCircularThreadsLeft
+{
+    private final ClassCircularThreadsRight right;
+
+    public ClassCircularThreadsLeft(ClassCircularBarrier barrier, ClassCircularThreadsRight right)
+    {
+        this.right = right;
+    }
+
+    public ClassCircularThreadsRight getRight()
+    {
+        return right;
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.refhumbold.yadic.models.dependencies.circular;
+
+public class ClassCircularThreadsRight
+{
+    private final ClassCircularThreadsLeft left;
+
+    public ClassCircularThreadsRight(ClassCircularBarrier barrier, ClassCircularThreadsLeft left)
+    {
+        this.left = left;
+    }
+
+    public ClassCircularThreadsLeft getLeft()
+    {
+        return left;
+    }
+}
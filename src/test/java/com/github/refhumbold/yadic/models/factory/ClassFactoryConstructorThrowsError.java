@@ -0,0 +1,17 @@
+package com.github.refhumbold.yadic.models.factory;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+import com.github.refhumbold.yadic.models.inheritance.ClassConcrete;
+
+public class ClassFactoryConstructorThrowsError
+{
+    public ClassFactoryConstructorThrowsError()
+    {
+        throw new AssertionError();
+    }
+
+    @YadicDependency
+    public void setConcrete(ClassConcrete concrete)
+    {
+    }
+}
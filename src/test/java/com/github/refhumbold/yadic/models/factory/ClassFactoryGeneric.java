@@ -0,0 +1,20 @@
+package com.github.refhumbold.yadic.models.factory;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+import com.github.refhumbold.yadic.models.inheritance.ClassConcrete;
+
+public class ClassFactoryGeneric<T extends ClassConcrete>
+{
+    private T item;
+
+    public T getItem()
+    {
+        return item;
+    }
+
+    @YadicDependency
+    public void setItem(T item)
+    {
+        this.item = item;
+    }
+}
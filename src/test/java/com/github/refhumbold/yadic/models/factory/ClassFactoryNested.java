@@ -0,0 +1,23 @@
+package com.github.refhumbold.yadic.models.factory;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+import com.github.refhumbold.yadic.models.inheritance.ClassConcrete;
+
+public class ClassFactoryNested
+{
+    public static class Inner
+    {
+        private ClassConcrete concrete;
+
+        public ClassConcrete getConcrete()
+        {
+            return concrete;
+        }
+
+        @YadicDependency
+        public void setConcrete(ClassConcrete concrete)
+        {
+            this.concrete = concrete;
+        }
+    }
+}
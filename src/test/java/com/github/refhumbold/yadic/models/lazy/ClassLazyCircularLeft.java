@@ -0,0 +1,18 @@
+package com.github.refhumbold.yadic.models.lazy;
+
+import com.github.refhumbold.yadic.Provider;
+
+public class ClassLazyCircularLeft
+{
+    private final Provider<ClassLazyCircularRight> right;
+
+    public ClassLazyCircularLeft(Provider<ClassLazyCircularRight> right)
+    {
+        this.right = right;
+    }
+
+    public Provider<ClassLazyCircularRight> getRight()
+    {
+        return right;
+    }
+}
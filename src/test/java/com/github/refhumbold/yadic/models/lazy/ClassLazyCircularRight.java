@@ -0,0 +1,16 @@
+package com.github.refhumbold.yadic.models.lazy;
+
+public class ClassLazyCircularRight
+{
+    private final ClassLazyCircularLeft left;
+
+    public ClassLazyCircularRight(ClassLazyCircularLeft left)
+    {
+        this.left = left;
+    }
+
+    public ClassLazyCircularLeft getLeft()
+    {
+        return left;
+    }
+}
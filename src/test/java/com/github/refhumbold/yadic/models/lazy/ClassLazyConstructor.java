@@ -0,0 +1,18 @@
+package com.github.refhumbold.yadic.models.lazy;
+
+import com.github.refhumbold.yadic.Provider;
+
+public class ClassLazyConstructor
+{
+    private final Provider<ClassLazyDependency> dependency;
+
+    public ClassLazyConstructor(Provider<ClassLazyDependency> dependency)
+    {
+        this.dependency = dependency;
+    }
+
+    public Provider<ClassLazyDependency> getDependency()
+    {
+        return dependency;
+    }
+}
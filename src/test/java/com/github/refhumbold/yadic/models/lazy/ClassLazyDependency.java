@@ -0,0 +1,13 @@
+package com.github.refhumbold.yadic.models.lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClassLazyDependency
+{
+    public static final AtomicInteger instancesCount = new AtomicInteger();
+
+    public ClassLazyDependency()
+    {
+        instancesCount.incrementAndGet();
+    }
+}
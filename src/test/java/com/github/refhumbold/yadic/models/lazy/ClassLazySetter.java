@@ -0,0 +1,20 @@
+package com.github.refhumbold.yadic.models.lazy;
+
+import java.util.function.Supplier;
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+
+public class ClassLazySetter
+{
+    private Supplier<ClassLazyDependency> dependency;
+
+    public Supplier<ClassLazyDependency> getDependency()
+    {
+        return dependency;
+    }
+
+    @YadicDependency
+    public void setDependency(Supplier<ClassLazyDependency> dependency)
+    {
+        this.dependency = dependency;
+    }
+}
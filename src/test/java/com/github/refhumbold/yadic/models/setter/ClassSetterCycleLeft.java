@@ -0,0 +1,19 @@
+package com.github.refhumbold.yadic.models.setter;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+
+public class ClassSetterCycleLeft
+{
+    private ClassSetterCycleRight right;
+
+    public ClassSetterCycleRight getRight()
+    {
+        return right;
+    }
+
+    @YadicDependency
+    public void setRight(ClassSetterCycleRight right)
+    {
+        this.right = right;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.refhumbold.yadic.models.setter;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+
+public class ClassSetterCycleRight
+{
+    private ClassSetterCycleLeft left;
+
+    public ClassSetterCycleLeft getLeft()
+    {
+        return left;
+    }
+
+    @YadicDependency
+    public void setLeft(ClassSetterCycleLeft left)
+    {
+        this.left = left;
+    }
+}
@@ -185,6 +185,68 @@ public class DependencyRegistryTest
         Assertions.assertThat(result.policy()).isEqualTo(ConstructionPolicy.CONSTRUCTION);
     }
 
+    // endregion
+    // region addPooledType
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, -1 })
+    public void addPooledType_WhenEmptyPool_ThenRegistrationException(int capacity)
+    {
+        Assertions.assertThatThrownBy(
+                          () -> testObject.addPooledType(InterfaceInheritance.class,
+                                  ClassConcrete.class, capacity, null))
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    @Test
+    public void addPooledType_WhenSubtype_ThenPooledPolicy()
+    {
+        // when
+        testObject.addPooledType(InterfaceInheritance.class, ClassConcrete.class, 2, null);
+
+        TypeConstruction<? extends InterfaceInheritance> result =
+                testObject.findType(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result.type()).isEqualTo(ClassConcrete.class);
+        Assertions.assertThat(result.policy()).isEqualTo(ConstructionPolicy.POOLED);
+    }
+
+    @Test
+    public void addPooledType_WhenAliasRegistered_ThenPoolKept()
+    {
+        // given
+        testObject.addPooledType(ClassConcrete.class, ClassConcrete.class, 1, null);
+
+        ClassConcrete instance = new ClassConcrete();
+
+        // when
+        testObject.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.POOLED);
+
+        boolean result = testObject.release(instance);
+
+        // then
+        Assertions.assertThat(result).isTrue();
+    }
+
+    @Test
+    public void addPooledType_WhenTypeRegisteredAgain_ThenPoolDropped()
+    {
+        // given
+        testObject.addPooledType(ClassConcrete.class, ClassConcrete.class, 1, null);
+
+        ClassConcrete instance = new ClassConcrete();
+
+        // when
+        testObject.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+
+        boolean result = testObject.release(instance);
+
+        // then
+        Assertions.assertThat(result).isFalse();
+    }
+
     // endregion
     // region addInstance & addInstance/findInstance
 
@@ -442,6 +504,67 @@ public class DependencyRegistryTest
         Assertions.assertThat(result.policy()).isEqualTo(ConstructionPolicy.CONSTRUCTION);
     }
 
+    @Test
+    public void findType_WhenChainExtendedAfterLookup_ThenMappingToNewEnd()
+    {
+        // given
+        testObject.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        TypeConstruction<? extends InterfaceInheritance> result1 =
+                testObject.findType(InterfaceInheritance.class);
+
+        testObject.addType(ClassConcrete.class, ClassConcreteDerived.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        TypeConstruction<? extends InterfaceInheritance> result2 =
+                testObject.findType(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result1.type()).isEqualTo(ClassConcrete.class);
+        Assertions.assertThat(result2.type()).isEqualTo(ClassConcreteDerived.class);
+    }
+
+    @Test
+    public void findType_WhenMiddleOfChainReplacedAfterLookup_ThenMappingToNewEnd()
+    {
+        // given
+        testObject.addType(InterfaceInheritance.class, ClassAbstract.class,
+                ConstructionPolicy.CONSTRUCTION);
+        testObject.addType(ClassAbstract.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        TypeConstruction<? extends InterfaceInheritance> result1 =
+                testObject.findType(InterfaceInheritance.class);
+
+        testObject.addType(ClassAbstract.class, ClassConcreteDerived.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        TypeConstruction<? extends InterfaceInheritance> result2 =
+                testObject.findType(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(result1.type()).isEqualTo(ClassConcrete.class);
+        Assertions.assertThat(result2.type()).isEqualTo(ClassConcreteDerived.class);
+    }
+
+    @Test
+    public void findType_WhenChainExtendedWithDifferentPolicy_ThenMixingPoliciesException()
+    {
+        // given
+        testObject.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.SINGLETON);
+        testObject.findType(InterfaceInheritance.class);
+        testObject.addType(ClassConcrete.class, ClassConcreteDerived.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.findType(InterfaceInheritance.class))
+                  .isInstanceOf(MixingPoliciesException.class);
+    }
+
     @Test
     public void findType_WhenInterfaceNotAdded_ThenMissingDependenciesException()
     {
@@ -544,6 +667,39 @@ public class DependencyRegistryTest
         Assertions.assertThat(result.exists()).isFalse();
     }
 
+    @Test
+    public void findType_WhenIncorrectlyAnnotatedTwice_ThenNewExceptionEachTime()
+    {
+        // given
+        Class<ClassRegisterNotOwnSubclass> type = ClassRegisterNotOwnSubclass.class;
+
+        // when
+        Throwable result1 = Assertions.catchThrowable(() -> testObject.findType(type));
+        Throwable result2 = Assertions.catchThrowable(() -> testObject.findType(type));
+
+        // then
+        Assertions.assertThat(result1).isInstanceOf(NotDerivedTypeException.class);
+        Assertions.assertThat(result2)
+                  .isInstanceOf(NotDerivedTypeException.class)
+                  .isNotSameAs(result1);
+    }
+
+    @Test
+    public void findInstance_WhenNoInstance_ThenSharedEmptyInstance()
+    {
+        // given
+        testObject.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        Instance<ClassConcrete> result1 = testObject.findInstance(ClassConcrete.class);
+        Instance<ClassConcreteDerived> result2 =
+                testObject.findInstance(ClassConcreteDerived.class);
+
+        // then
+        Assertions.assertThat(result1.exists()).isFalse();
+        Assertions.assertThat(result1).isSameAs(result2).isSameAs(Instance.none());
+    }
+
     // endregion
     // region contains
 
@@ -680,5 +836,123 @@ public class DependencyRegistryTest
         Assertions.assertThat(result).isFalse();
     }
 
+    // endregion
+    // region clearThreadSlots
+
+    @Test
+    public void clearThreadSlots_WhenThreadInstanceConstructed_ThenInstanceReleased()
+    {
+        // given
+        testObject.addType(ClassConcrete.class, ConstructionPolicy.THREAD);
+
+        Construction<ClassConcrete> construction =
+                testObject.startConstruction(ClassConcrete.class, null, null);
+
+        construction.complete(new ClassConcrete());
+
+        // when
+        testObject.clearThreadSlots();
+
+        // then
+        Assertions.assertThat(construction.existing()).isNull();
+        Assertions.assertThat(
+                          testObject.startConstruction(ClassConcrete.class, null, null).existing())
+                  .isNull();
+    }
+
+    @Test
+    public void clearThreadSlots_WhenThreadTypeRegisteredAgain_ThenInstanceReleased()
+    {
+        // given
+        testObject.addType(ClassConcrete.class, ConstructionPolicy.THREAD);
+
+        Construction<ClassConcrete> construction =
+                testObject.startConstruction(ClassConcrete.class, null, null);
+
+        construction.complete(new ClassConcrete());
+
+        // when
+        testObject.addType(ClassConcrete.class, ConstructionPolicy.THREAD);
+
+        // then
+        Assertions.assertThat(construction.existing()).isNull();
+    }
+
+    // endregion
+    // region freeze
+
+    @Test
+    public void freeze_addType_WhenFrozen_ThenRegistrationException()
+    {
+        // given
+        testObject.freeze();
+
+        // then
+        Assertions.assertThatThrownBy(
+                          () -> testObject.addType(ClassConcrete.class,
+                                  ConstructionPolicy.CONSTRUCTION))
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    @Test
+    public void freeze_addInstance_WhenFrozen_ThenRegistrationException()
+    {
+        // given
+        testObject.freeze();
+
+        // then
+        Assertions.assertThatThrownBy(
+                          () -> testObject.addInstance(ClassConcrete.class, new ClassConcrete()))
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    @Test
+    public void freeze_WhenFrozenAgain_ThenRegistrationException()
+    {
+        // given
+        testObject.freeze();
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.freeze())
+                  .isInstanceOf(RegistrationException.class);
+    }
+
+    @Test
+    public void freeze_findType_WhenChainOfTypes_ThenMappingToConcreteType()
+    {
+        // given
+        testObject.addType(InterfaceInheritance.class, ClassAbstract.class,
+                ConstructionPolicy.SINGLETON);
+        testObject.addType(ClassAbstract.class, ClassConcrete.class, ConstructionPolicy.SINGLETON);
+
+        // when
+        testObject.freeze();
+
+        TypeConstruction<? extends InterfaceInheritance> result =
+                testObject.findType(InterfaceInheritance.class);
+
+        // then
+        Assertions.assertThat(testObject.isFrozen()).isTrue();
+        Assertions.assertThat(result.type()).isEqualTo(ClassConcrete.class);
+        Assertions.assertThat(result.policy()).isEqualTo(ConstructionPolicy.SINGLETON);
+    }
+
+    @Test
+    public void freeze_findType_WhenChainMixesPolicies_ThenMixingPoliciesException()
+    {
+        // given
+        testObject.addType(InterfaceInheritance.class, ClassAbstract.class,
+                ConstructionPolicy.SINGLETON);
+        testObject.addType(ClassAbstract.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        testObject.freeze();
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.findType(InterfaceInheritance.class))
+                  .isInstanceOf(MixingPoliciesException.class);
+    }
+
     // endregion
 }
@@ -0,0 +1,102 @@
+package com.github.refhumbold.yadic.registry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.github.refhumbold.yadic.resolver.exception.CircularDependenciesException;
+
+public class SingletonSlotTest
+{
+    private ReleasableSlot testObject;
+
+    @BeforeEach
+    public void setUp()
+    {
+        testObject = new ReleasableSlot();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void get_WhenCalledTwice_ThenConstructedOnce()
+    {
+        // given
+        AtomicInteger constructions = new AtomicInteger();
+        Supplier<Object> constructor = () -> {
+            constructions.incrementAndGet();
+            return new Object();
+        };
+
+        // when
+        Object result1 = testObject.get(constructor);
+        Object result2 = testObject.get(constructor);
+
+        // then
+        Assertions.assertThat(result1).isSameAs(result2);
+        Assertions.assertThat(constructions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_WhenInstanceReleased_ThenConstructedAgain()
+    {
+        // given
+        Object instance = testObject.get(Object::new);
+
+        testObject.release();
+
+        // when
+        Object result = testObject.get(Object::new);
+
+        // then
+        Assertions.assertThat(result).isNotNull().isNotSameAs(instance);
+        Assertions.assertThat(testObject.get().extract()).isSameAs(result);
+    }
+
+    @Test
+    public void begin_WhenInstanceReleased_ThenConstructionOwned()
+    {
+        // given
+        testObject.get(Object::new);
+        testObject.release();
+
+        // when
+        Construction<Object> result = testObject.begin();
+
+        // then
+        Assertions.assertThat(result).isSameAs(testObject);
+        Assertions.assertThat(result.existing()).isNull();
+        Assertions.assertThatThrownBy(() -> testObject.begin())
+                  .isInstanceOf(CircularDependenciesException.class);
+    }
+
+    // holds instance like a soft slot whose reference has been cleared on demand
+    private static final class ReleasableSlot
+            extends SingletonSlot<Object>
+    {
+        private volatile Object held;
+
+        @Override
+        Object read()
+        {
+            return held;
+        }
+
+        @Override
+        void hold(Object object)
+        {
+            held = object;
+        }
+
+        void release()
+        {
+            held = null;
+        }
+    }
+}
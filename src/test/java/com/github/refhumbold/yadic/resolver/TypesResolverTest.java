@@ -1,12 +1,18 @@
 package com.github.refhumbold.yadic.resolver;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.InstantiationBackend;
+import com.github.refhumbold.yadic.factory.YadicFactory;
 import com.github.refhumbold.yadic.models.annotations.register.*;
 import com.github.refhumbold.yadic.models.annotations.registerself.ClassAbstractRegisterSelf;
 import com.github.refhumbold.yadic.models.annotations.registerself.ClassRegisterSelf;
@@ -15,6 +21,16 @@ import com.github.refhumbold.yadic.models.constructors.*;
 import com.github.refhumbold.yadic.models.constructors.annotation.ClassAnnotatedDefaultConstructor;
 import com.github.refhumbold.yadic.models.constructors.annotation.ClassAnnotatedMultipleConstructors;
 import com.github.refhumbold.yadic.models.constructors.annotation.ClassAnnotatedParameterizedConstructor;
+import com.github.refhumbold.yadic.models.constructors.comparator.ClassConstructorThrowsFallback;
+import com.github.refhumbold.yadic.models.constructors.comparator.ClassConstructorsFallback;
+import com.github.refhumbold.yadic.models.constructors.comparator.ClassConstructorsSorting;
+import com.github.refhumbold.yadic.models.constructors.comparator.ClassFallbackDependency;
+import com.github.refhumbold.yadic.models.dependencies.linear.ClassLinear;
+import com.github.refhumbold.yadic.models.dependencies.linear.ClassLinearFirst;
+import com.github.refhumbold.yadic.models.factory.ClassFactoryConstructorThrowsError;
+import com.github.refhumbold.yadic.models.factory.ClassFactoryGeneric;
+import com.github.refhumbold.yadic.models.factory.ClassFactoryNested;
+import com.github.refhumbold.yadic.models.factory.ClassFactoryNested_Inner;
 import com.github.refhumbold.yadic.models.inheritance.ClassAbstract;
 import com.github.refhumbold.yadic.models.inheritance.ClassConcrete;
 import com.github.refhumbold.yadic.models.inheritance.ClassConcreteDerived;
@@ -23,6 +39,8 @@ import com.github.refhumbold.yadic.models.setter.*;
 import com.github.refhumbold.yadic.registry.DependencyRegistry;
 import com.github.refhumbold.yadic.registry.exception.AbstractTypeException;
 import com.github.refhumbold.yadic.resolver.exception.*;
+import com.github.refhumbold.yadic.synthetic.GraphShape;
+import com.github.refhumbold.yadic.synthetic.SyntheticGraph;
 
 public class TypesResolverTest
 {
@@ -442,6 +460,374 @@ public class TypesResolverTest
                   .isInstanceOf(SetterInvocationException.class);
     }
 
+    @Test
+    public void resolve_WhenSettersDiscovered_ThenDiscoveredOncePerClass()
+    {
+        // given
+        dictionary.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addInstance(ClassLinearFirst.class, new ClassLinearFirst(null));
+
+        // when
+        ClassSetterMultipleSetters result = testObject.resolve(ClassSetterMultipleSetters.class);
+
+        // then
+        TypeSetters setters = TypeSetters.of(ClassSetterMultipleSetters.class);
+
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(setters).isSameAs(TypeSetters.of(ClassSetterMultipleSetters.class));
+        Assertions.assertThat(setters.setters.stream().map(Method::getName).toList())
+                  .containsExactlyInAnyOrder("setConcrete", "setLinear");
+        Assertions.assertThat(TypeSetters.of(ClassConcrete.class)).isSameAs(TypeSetters.NONE);
+    }
+
+    // endregion
+    // region resolve [resolution plans]
+
+    @Test
+    public void resolve_WhenResolvedAgain_ThenSameConstructorUsed()
+    {
+        // given
+        dictionary.addInstance(int.class, 10);
+        dictionary.addInstance(String.class, "qwertyuiop");
+
+        // when
+        ClassConstructorsSorting result1 = testObject.resolve(ClassConstructorsSorting.class);
+        ClassConstructorsSorting result2 = testObject.resolve(ClassConstructorsSorting.class);
+
+        // then
+        Assertions.assertThat(result1).isNotNull().isNotSameAs(result2);
+        Assertions.assertThat(result1.getDoubles()).hasSize(2);
+        Assertions.assertThat(result2).isNotNull();
+        Assertions.assertThat(result2.getDoubles()).hasSize(2);
+    }
+
+    @Test
+    public void resolve_WhenDependencyAddedAfterResolving_ThenOtherConstructorUsed()
+    {
+        // given
+        dictionary.addInstance(int.class, 10);
+        dictionary.addInstance(String.class, "qwertyuiop");
+
+        // when 1
+        ClassConstructorsSorting result1 = testObject.resolve(ClassConstructorsSorting.class);
+
+        // then 1
+        Assertions.assertThat(result1).isNotNull();
+        Assertions.assertThat(result1.getDoubles()).hasSize(2);
+
+        // when 2
+        dictionary.addInstance(List.class, new ArrayList<Double>());
+
+        ClassConstructorsSorting result2 = testObject.resolve(ClassConstructorsSorting.class);
+
+        // then 2
+        Assertions.assertThat(result2).isNotNull();
+        Assertions.assertThat(result2.getDoubles()).isEmpty();
+    }
+
+    @Test
+    public void resolve_WhenFirstConstructorUnusable_ThenItsDependenciesNotConstructed()
+    {
+        // given
+        int instancesCount = ClassFallbackDependency.instancesCount.get();
+
+        dictionary.addType(ClassFallbackDependency.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        ClassConstructorsFallback result = testObject.resolve(ClassConstructorsFallback.class);
+
+        // then
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getDependency()).isNotNull();
+        Assertions.assertThat(result.getInheritance()).isNull();
+        Assertions.assertThat(ClassFallbackDependency.instancesCount.get())
+                  .isEqualTo(instancesCount + 1);
+        Assertions.assertThat(testObject.findPlan(ClassConstructorsFallback.class).parameters())
+                  .containsExactly(ClassFallbackDependency.class);
+    }
+
+    @Test
+    public void resolve_WhenSelectedConstructorThrows_ThenNextConstructorInvokedOnce()
+    {
+        // given
+        int failedInvocations = ClassConstructorThrowsFallback.failedInvocations.get();
+
+        dictionary.addType(ClassFallbackDependency.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        ClassConstructorThrowsFallback result1 =
+                testObject.resolve(ClassConstructorThrowsFallback.class);
+        ClassConstructorThrowsFallback result2 =
+                testObject.resolve(ClassConstructorThrowsFallback.class);
+
+        // then
+        Assertions.assertThat(result1).isNotNull();
+        Assertions.assertThat(result2).isNotNull().isNotSameAs(result1);
+        Assertions.assertThat(ClassConstructorThrowsFallback.failedInvocations.get())
+                  .isEqualTo(failedInvocations + 2);
+    }
+
+    @Test
+    public void resolve_WhenResolvedByManyResolvers_ThenMetadataShared()
+    {
+        // given
+        DependencyRegistry otherDictionary = new DependencyRegistry();
+        TypesResolver otherResolver = new TypesResolver(otherDictionary);
+
+        dictionary.addInstance(int.class, 10);
+        otherDictionary.addInstance(int.class, 20);
+
+        // when
+        ClassSetterPrimitive result1 = testObject.resolve(ClassSetterPrimitive.class);
+        ClassSetterPrimitive result2 = otherResolver.resolve(ClassSetterPrimitive.class);
+
+        // then
+        ResolutionPlan<? extends ClassSetterPrimitive> plan1 =
+                testObject.findPlan(ClassSetterPrimitive.class);
+        ResolutionPlan<? extends ClassSetterPrimitive> plan2 =
+                otherResolver.findPlan(ClassSetterPrimitive.class);
+
+        Assertions.assertThat(result1).isNotNull().isNotSameAs(result2);
+        Assertions.assertThat(plan1.invoker()).isSameAs(plan2.invoker());
+        Assertions.assertThat(plan1.lazyTargets()).isSameAs(plan2.lazyTargets());
+        Assertions.assertThat(plan1.setters().get(0).invoker())
+                  .isSameAs(plan2.setters().get(0).invoker());
+        Assertions.assertThat(TypeConstructors.of(ClassSetterPrimitive.class))
+                  .isSameAs(TypeConstructors.of(ClassSetterPrimitive.class));
+    }
+
+    // endregion
+    // region resolve [deep graphs]
+
+    @Test
+    public void resolve_WhenGraphThousandsLevelsDeep_ThenResolvedWithSmallStack()
+            throws Exception
+    {
+        // given
+        SyntheticGraph graph = SyntheticGraph.generate(GraphShape.deep(2000));
+        Class<?> root = graph.roots().get(0);
+
+        graph.registerIn(dictionary);
+
+        Object[] result = new Object[2];
+        Thread thread = new Thread(null, () -> {
+            try
+            {
+                result[0] = testObject.resolve(root);
+            }
+            catch(Throwable t)
+            {
+                result[1] = t;
+            }
+        }, "deep-resolve", 256 * 1024);
+
+        // when
+        thread.start();
+        thread.join();
+
+        // then
+        Assertions.assertThat(result[1]).isNull();
+        Assertions.assertThat(result[0]).isNotNull().isInstanceOf(root);
+    }
+
+    // endregion
+    // region resolve [instantiation backends]
+
+    @ParameterizedTest
+    @EnumSource(InstantiationBackend.class)
+    public void resolve_WhenResolvedTwiceWithBackend_ThenInstancesWithDependencies(
+            InstantiationBackend backend)
+    {
+        // given
+        testObject = new TypesResolver(dictionary, backend);
+        dictionary.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+        dictionary.addType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addInstance(ClassLinearFirst.class, new ClassLinearFirst(null));
+
+        // when
+        ClassSetterWithConstructor result1 =
+                testObject.resolve(ClassSetterWithConstructor.class);
+        ClassSetterWithConstructor result2 =
+                testObject.resolve(ClassSetterWithConstructor.class);
+
+        // then
+        Assertions.assertThat(result1).isNotNull().isNotSameAs(result2);
+        Assertions.assertThat(result1.getInheritance()).isNotNull();
+        Assertions.assertThat(result1.getLinear()).isNotNull();
+        Assertions.assertThat(result2).isNotNull();
+        Assertions.assertThat(result2.getInheritance())
+                  .isNotNull()
+                  .isExactlyInstanceOf(ClassConcrete.class);
+        Assertions.assertThat(result2.getLinear())
+                  .isNotNull()
+                  .isExactlyInstanceOf(ClassLinear.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InstantiationBackend.class)
+    public void resolve_WhenConstructorThrowsErrorWithBackend_ThenNoInstanceCreatedException(
+            InstantiationBackend backend)
+    {
+        // given
+        testObject = new TypesResolver(dictionary, backend);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassConstructorThrowsError.class))
+                  .isInstanceOf(NoInstanceCreatedException.class);
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassConstructorThrows.class))
+                  .isInstanceOf(NoInstanceCreatedException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InstantiationBackend.class)
+    public void resolve_WhenSetterThrowsExceptionWithBackend_ThenSetterInvocationException(
+            InstantiationBackend backend)
+    {
+        // given
+        testObject = new TypesResolver(dictionary, backend);
+        dictionary.addInstance(int.class, 10);
+
+        // then
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassSetterThrows.class))
+                  .isInstanceOf(SetterInvocationException.class);
+        Assertions.assertThatThrownBy(() -> testObject.resolve(ClassSetterThrows.class))
+                  .isInstanceOf(SetterInvocationException.class);
+    }
+
+    // endregion
+    // region resolve [generated factories]
+
+    @Test
+    public void resolve_WhenFactoryGenerated_ThenInstanceWithDependencies()
+    {
+        // given
+        dictionary.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addInstance(ClassLinearFirst.class, new ClassLinearFirst(null));
+
+        // when
+        ClassSetterMultipleSetters result = testObject.resolve(ClassSetterMultipleSetters.class);
+
+        // then
+        Assertions.assertThat(GeneratedFactories.find(ClassSetterMultipleSetters.class))
+                  .isNotNull();
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getConcrete()).isNotNull();
+        Assertions.assertThat(result.getLinear()).isNotNull();
+    }
+
+    @Test
+    public void resolve_WhenNestedTypeNamedAsFlattenedType_ThenDistinctFactories()
+    {
+        // given
+        dictionary.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        ClassFactoryNested.Inner result1 = testObject.resolve(ClassFactoryNested.Inner.class);
+        ClassFactoryNested_Inner result2 = testObject.resolve(ClassFactoryNested_Inner.class);
+
+        // then
+        YadicFactory<ClassFactoryNested.Inner> factory1 =
+                GeneratedFactories.find(ClassFactoryNested.Inner.class);
+        YadicFactory<ClassFactoryNested_Inner> factory2 =
+                GeneratedFactories.find(ClassFactoryNested_Inner.class);
+
+        Assertions.assertThat(factory1).isNotNull();
+        Assertions.assertThat(factory2).isNotNull();
+        Assertions.assertThat(factory1.getClass()).isNotSameAs(factory2.getClass());
+        Assertions.assertThat(result1.getConcrete()).isNotNull();
+        Assertions.assertThat(result2.getConcrete()).isNotNull();
+    }
+
+    @Test
+    public void resolve_WhenFactoryOfGenericTypeGenerated_ThenInstanceWithDependencies()
+    {
+        // given
+        dictionary.addType(ClassConcrete.class, ConstructionPolicy.CONSTRUCTION);
+
+        // when
+        ClassFactoryGeneric<?> result = testObject.resolve(ClassFactoryGeneric.class);
+
+        // then
+        Assertions.assertThat(GeneratedFactories.find(ClassFactoryGeneric.class)).isNotNull();
+        Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getItem()).isNotNull();
+    }
+
+    @Test
+    public void resolve_WhenFactoryConstructorThrowsError_ThenNoInstanceCreatedException()
+    {
+        Assertions.assertThat(GeneratedFactories.find(ClassFactoryConstructorThrowsError.class))
+                  .isNotNull();
+        Assertions.assertThatThrownBy(
+                          () -> testObject.resolve(ClassFactoryConstructorThrowsError.class))
+                  .isInstanceOf(NoInstanceCreatedException.class);
+    }
+
+    @Test
+    public void resolve_WhenNoFactoryGenerated_ThenInstanceCreatedByReflection()
+    {
+        // when
+        ClassDefaultConstructorOnly result = testObject.resolve(ClassDefaultConstructorOnly.class);
+
+        // then
+        Assertions.assertThat(GeneratedFactories.find(ClassDefaultConstructorOnly.class)).isNull();
+        Assertions.assertThat(result).isNotNull();
+    }
+
+    // endregion
+    // region validate
+
+    @Test
+    public void validate_WhenTypesResolvable_ThenPlansCompiled()
+    {
+        // given
+        dictionary.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+        dictionary.addType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addInstance(ClassLinearFirst.class, new ClassLinearFirst(null));
+
+        // when
+        testObject.validate(List.of(ClassSetterWithConstructor.class));
+
+        // then
+        Assertions.assertThat(testObject.findPlan(ClassSetterWithConstructor.class)).isNotNull();
+        Assertions.assertThat(testObject.findPlan(ClassLinear.class)).isNotNull();
+        Assertions.assertThat(testObject.findPlan(InterfaceInheritance.class)).isNotNull();
+    }
+
+    @Test
+    public void validate_WhenRegistryFrozenAfterwards_ThenPlansKept()
+    {
+        // given
+        dictionary.addType(InterfaceInheritance.class, ClassConcrete.class,
+                ConstructionPolicy.CONSTRUCTION);
+        dictionary.addType(ClassLinear.class, ConstructionPolicy.CONSTRUCTION);
+        dictionary.addInstance(ClassLinearFirst.class, new ClassLinearFirst(null));
+        testObject.validate(List.of(ClassSetterWithConstructor.class));
+
+        ResolutionPlan<? extends ClassSetterWithConstructor> plan =
+                testObject.findPlan(ClassSetterWithConstructor.class);
+
+        // when
+        dictionary.freeze();
+
+        // then
+        Assertions.assertThat(plan).isNotNull();
+        Assertions.assertThat(testObject.findPlan(ClassSetterWithConstructor.class))
+                  .isSameAs(plan);
+    }
+
+    @Test
+    public void validate_WhenDependencyMissing_ThenDependencyGraphException()
+    {
+        Assertions.assertThatThrownBy(
+                          () -> testObject.validate(List.of(ClassSetterWithConstructor.class)))
+                  .isInstanceOf(DependencyGraphException.class);
+    }
+
     // endregion
     // region resolveOrNull
 
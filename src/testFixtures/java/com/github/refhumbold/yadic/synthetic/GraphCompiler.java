@@ -0,0 +1,224 @@
+package com.github.refhumbold.yadic.synthetic;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+
+/**
+ * Writes sources of synthetic graph classes, compiles them with the system Java compiler and
+ * loads them in a class loader of their own, so that graphs with equal names do not clash.
+ */
+class GraphCompiler
+{
+    private static final String PACKAGE = "synthetic";
+    private final GraphShape shape;
+    private final Random random;
+
+    GraphCompiler(GraphShape shape)
+    {
+        this.shape = shape;
+        random = new Random(shape.seed());
+    }
+
+    SyntheticGraph compile()
+    {
+        try
+        {
+            Path directory = Files.createTempDirectory("yadic-synthetic");
+            List<Path> sources = new ArrayList<>();
+            List<ConstructionPolicy> policies = new ArrayList<>();
+
+            for(int layer = 0; layer < shape.layers(); ++layer)
+                for(int index = 0; index < shape.width(); ++index)
+                {
+                    ConstructionPolicy policy = random.nextDouble() < shape.singletonRatio()
+                                                ? ConstructionPolicy.SINGLETON
+                                                : ConstructionPolicy.CONSTRUCTION;
+
+                    policies.add(policy);
+                    sources.addAll(writeSources(directory, layer, index));
+                }
+
+            invokeCompiler(directory, sources);
+            return load(directory, policies);
+        }
+        catch(IOException | ClassNotFoundException | URISyntaxException e)
+        {
+            throw new IllegalStateException(
+                    String.format("Synthetic graph could not be generated: %s", e.getMessage()),
+                    e);
+        }
+    }
+
+    private List<Path> writeSources(Path directory, int layer, int index)
+            throws IOException
+    {
+        String name = className(layer, index);
+        String supertype = "";
+        List<Path> sources = new ArrayList<>();
+
+        if(shape.chainLength() >= 1)
+        {
+            sources.add(write(directory, interfaceName(layer, index),
+                    String.format("public interface %s {}", interfaceName(layer, index))));
+            supertype = String.format(" implements %s", interfaceName(layer, index));
+        }
+
+        if(shape.chainLength() >= 2)
+        {
+            sources.add(write(directory, abstractName(layer, index),
+                    String.format("public abstract class %s%s {}", abstractName(layer, index),
+                            supertype)));
+            supertype = String.format(" extends %s", abstractName(layer, index));
+        }
+
+        List<String> parameters = new ArrayList<>();
+        StringBuilder setters = new StringBuilder();
+
+        if(layer > 0)
+            for(int dependency : chooseDependencies())
+            {
+                String dependencyType = headName(layer - 1, dependency);
+
+                if(random.nextDouble() < shape.setterRatio())
+                    setters.append(String.format(" @%s public void setDependency%d(%s d) {}",
+                            YadicDependency.class.getName(), dependency, dependencyType));
+                else
+                    parameters.add(String.format("%s p%d", dependencyType, dependency));
+            }
+
+        sources.add(write(directory, name,
+                String.format("public class %s%s { public %s(%s) {}%s }", name, supertype, name,
+                        String.join(", ", parameters), setters)));
+        return sources;
+    }
+
+    private List<Integer> chooseDependencies()
+    {
+        return random.ints(0, shape.width())
+                     .distinct()
+                     .limit(shape.fanOut())
+                     .sorted()
+                     .boxed()
+                     .collect(Collectors.toList());
+    }
+
+    private Path write(Path directory, String name, String declaration)
+            throws IOException
+    {
+        Path source = directory.resolve(name + ".java");
+
+        Files.writeString(source, String.format("package %s; %s", PACKAGE, declaration));
+        return source;
+    }
+
+    private void invokeCompiler(Path directory, List<Path> sources)
+            throws IOException, URISyntaxException
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if(compiler == null)
+            throw new IllegalStateException("No Java compiler available in current runtime");
+
+        // generated classes see only the YADIC annotations
+        String classpath = Path.of(YadicDependency.class.getProtectionDomain()
+                                                        .getCodeSource()
+                                                        .getLocation()
+                                                        .toURI()).toString();
+        StringWriter output = new StringWriter();
+
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null,
+                null))
+        {
+            boolean compiled = compiler.getTask(output, fileManager, null,
+                                               List.of("-d", directory.toString(), "-classpath",
+                                                       classpath), null,
+                                               fileManager.getJavaFileObjectsFromPaths(sources))
+                                       .call();
+
+            if(!compiled)
+                throw new IllegalStateException(
+                        String.format("Synthetic graph could not be compiled:%n%s", output));
+        }
+    }
+
+    private SyntheticGraph load(Path directory, List<ConstructionPolicy> policies)
+            throws IOException, ClassNotFoundException
+    {
+        ClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                GraphCompiler.class.getClassLoader());
+        List<SyntheticGraph.Registration> registrations = new ArrayList<>();
+        List<Class<?>> roots = new ArrayList<>();
+
+        for(int layer = 0; layer < shape.layers(); ++layer)
+            for(int index = 0; index < shape.width(); ++index)
+            {
+                ConstructionPolicy policy = policies.get(layer * shape.width() + index);
+                Class<?> type = loader.loadClass(qualified(className(layer, index)));
+                Class<?> head = type;
+
+                // chain is registered from the class upwards, each type under its supertype
+                if(shape.chainLength() >= 2)
+                {
+                    Class<?> base = loader.loadClass(qualified(abstractName(layer, index)));
+
+                    registrations.add(new SyntheticGraph.Registration(base, type, policy));
+                    head = base;
+                }
+
+                if(shape.chainLength() >= 1)
+                {
+                    Class<?> api = loader.loadClass(qualified(interfaceName(layer, index)));
+
+                    registrations.add(new SyntheticGraph.Registration(api, head, policy));
+                    head = api;
+                }
+
+                if(shape.chainLength() == 0)
+                    registrations.add(new SyntheticGraph.Registration(type, type, policy));
+
+                if(layer == shape.layers() - 1)
+                    roots.add(head);
+            }
+
+        return new SyntheticGraph(shape, registrations, roots);
+    }
+
+    private String headName(int layer, int index)
+    {
+        return shape.chainLength() == 0 ? className(layer, index) : interfaceName(layer, index);
+    }
+
+    private static String className(int layer, int index)
+    {
+        return String.format("Node%dx%d", layer, index);
+    }
+
+    private static String abstractName(int layer, int index)
+    {
+        return String.format("Node%dx%dBase", layer, index);
+    }
+
+    private static String interfaceName(int layer, int index)
+    {
+        return String.format("Node%dx%dApi", layer, index);
+    }
+
+    private static String qualified(String name)
+    {
+        return String.format("%s.%s", PACKAGE, name);
+    }
+}
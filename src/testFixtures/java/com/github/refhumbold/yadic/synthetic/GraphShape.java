@@ -0,0 +1,82 @@
+package com.github.refhumbold.yadic.synthetic;
+
+/**
+ * Shape of a synthetic dependency graph. Generated classes are arranged in layers of equal width
+ * and each class outside the first layer depends on classes from the previous layer, so the
+ * graph has no cycles. Random choices are driven by the seed, so equal shapes produce equal
+ * graphs. Each dependent gets a new instance of a class that is not a singleton, so resolving
+ * a root constructs up to fan-out to the power of depth instances, unless singletons share them.
+ * @param layers number of layers, which is the depth of graph
+ * @param width number of classes in each layer
+ * @param fanOut number of dependencies of each class outside the first layer
+ * @param chainLength number of abstract types above each class: none, an interface, or an
+ * interface and an abstract class
+ * @param setterRatio fraction of dependencies injected with setters instead of constructors
+ * @param singletonRatio fraction of classes registered as singletons
+ * @param seed seed of random choices
+ */
+public record GraphShape(
+        int layers,
+        int width,
+        int fanOut,
+        int chainLength,
+        double setterRatio,
+        double singletonRatio,
+        long seed)
+{
+    // constructors accept at most 255 parameters
+    private static final int MAX_FAN_OUT = 255;
+    private static final int MAX_CHAIN_LENGTH = 2;
+
+    public GraphShape
+    {
+        if(layers < 1 || width < 1)
+            throw new IllegalArgumentException(
+                    String.format("Graph must have at least one class, got %d layers of width %d",
+                            layers, width));
+
+        if(fanOut < 0 || fanOut > Math.min(width, MAX_FAN_OUT))
+            throw new IllegalArgumentException(
+                    String.format("Fan-out must be between 0 and %d, got %d",
+                            Math.min(width, MAX_FAN_OUT), fanOut));
+
+        if(chainLength < 0 || chainLength > MAX_CHAIN_LENGTH)
+            throw new IllegalArgumentException(
+                    String.format("Chain length must be between 0 and %d, got %d",
+                            MAX_CHAIN_LENGTH, chainLength));
+
+        if(setterRatio < 0.0 || setterRatio > 1.0 || singletonRatio < 0.0
+                || singletonRatio > 1.0)
+            throw new IllegalArgumentException(
+                    String.format("Ratios must be between 0 and 1, got %f and %f", setterRatio,
+                            singletonRatio));
+    }
+
+    /**
+     * Shape of a chain of classes, each depending on the previous one.
+     * @param depth number of classes
+     * @return the shape
+     */
+    public static GraphShape deep(int depth)
+    {
+        return new GraphShape(depth, 1, 1, 0, 0.0, 0.0, 0L);
+    }
+
+    /**
+     * Shape of classes without dependencies and as many classes depending on all of them.
+     * @param width number of dependencies of each root
+     * @return the shape
+     */
+    public static GraphShape wide(int width)
+    {
+        return new GraphShape(2, width, width, 0, 0.0, 0.0, 0L);
+    }
+
+    /**
+     * @return number of generated classes, without abstract types of chains
+     */
+    public int size()
+    {
+        return layers * width;
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.refhumbold.yadic.synthetic;
+
+import java.util.List;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicContainer;
+import com.github.refhumbold.yadic.registry.DependencyRegistry;
+
+/**
+ * Dependency graph of classes generated and compiled at runtime for benchmarks and scale tests.
+ * Each class is registered under the head of its chain of abstract types, which is also the type
+ * its dependents refer to.
+ */
+public final class SyntheticGraph
+{
+    private final GraphShape shape;
+    private final List<Registration> registrations;
+    private final List<Class<?>> roots;
+
+    SyntheticGraph(GraphShape shape, List<Registration> registrations, List<Class<?>> roots)
+    {
+        this.shape = shape;
+        this.registrations = List.copyOf(registrations);
+        this.roots = List.copyOf(roots);
+    }
+
+    /**
+     * Generate and compile classes of dependency graph with given shape.
+     * @param shape shape of graph
+     * @return the generated graph
+     * @throws IllegalStateException if classes cannot be compiled or loaded
+     */
+    public static SyntheticGraph generate(GraphShape shape)
+    {
+        return new GraphCompiler(shape).compile();
+    }
+
+    public GraphShape shape()
+    {
+        return shape;
+    }
+
+    /**
+     * @return registrations of all types, with dependencies before their dependents
+     */
+    public List<Registration> registrations()
+    {
+        return registrations;
+    }
+
+    /**
+     * @return types of the last layer, which no other class depends on
+     */
+    public List<Class<?>> roots()
+    {
+        return roots;
+    }
+
+    /**
+     * Register all types of this graph in given container.
+     * @param container container to register in
+     * @return the container
+     */
+    public YadicContainer registerIn(YadicContainer container)
+    {
+        for(Registration registration : registrations)
+            registration.registerIn(container);
+
+        return container;
+    }
+
+    /**
+     * Register all types of this graph directly in given registry.
+     * @param registry registry to register in
+     */
+    public void registerIn(DependencyRegistry registry)
+    {
+        for(Registration registration : registrations)
+            registration.registerIn(registry);
+    }
+
+    /**
+     * Registration of a generated type.
+     * @param type registered type
+     * @param subtype registered subtype, the same as type for concrete classes without a chain
+     * @param policy construction policy
+     */
+    public record Registration(Class<?> type, Class<?> subtype, ConstructionPolicy policy)
+    {
+        @SuppressWarnings("unchecked")
+        void registerIn(YadicContainer container)
+        {
+            if(type == subtype)
+                container.registerType(type, policy);
+            else
+                container.registerType((Class<Object>)type, subtype, policy);
+        }
+
+        @SuppressWarnings("unchecked")
+        void registerIn(DependencyRegistry registry)
+        {
+            if(type == subtype)
+                registry.addType(type, policy);
+            else
+                registry.addType((Class<Object>)type, subtype, policy);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.refhumbold.yadic.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicContainer;
+import com.github.refhumbold.yadic.jmh.models.ClassDiamond;
+import com.github.refhumbold.yadic.jmh.models.ClassLeft;
+import com.github.refhumbold.yadic.jmh.models.ClassRight;
+import com.github.refhumbold.yadic.jmh.models.ClassTop;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ConstructionPolicyBenchmark
+{
+    @Param({"CONSTRUCTION", "SINGLETON", "PER_RESOLUTION"})
+    public ConstructionPolicy policy;
+
+    private YadicContainer container;
+
+    @Setup
+    public void setUp()
+    {
+        container = new YadicContainer().registerType(ClassTop.class, policy)
+                                         .registerType(ClassLeft.class, policy)
+                                         .registerType(ClassRight.class, policy)
+                                         .registerType(ClassDiamond.class, policy);
+    }
+
+    @Benchmark
+    public ClassDiamond resolveDiamond()
+    {
+        return container.resolve(ClassDiamond.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.refhumbold.yadic.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicContainer;
+import com.github.refhumbold.yadic.jmh.models.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LookupBenchmark
+{
+    private YadicContainer container;
+
+    @Setup
+    public void setUp()
+    {
+        container = new YadicContainer().registerInstance(ClassTop.class, new ClassTop())
+                                         .registerType(InterfaceService.class,
+                                                 ClassAbstractService.class,
+                                                 ConstructionPolicy.CONSTRUCTION)
+                                         .registerType(ClassAbstractService.class,
+                                                 ClassConcreteService.class,
+                                                 ConstructionPolicy.CONSTRUCTION);
+    }
+
+    @Benchmark
+    public ClassTop resolveRegisteredInstance()
+    {
+        return container.resolve(ClassTop.class);
+    }
+
+    @Benchmark
+    public InterfaceService resolveInterfaceChain()
+    {
+        return container.resolve(InterfaceService.class);
+    }
+
+    @Benchmark
+    public InterfaceUnregistered resolveOrNullMiss()
+    {
+        return container.resolveOrNull(InterfaceUnregistered.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.refhumbold.yadic.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.github.refhumbold.yadic.ConstructionPolicy;
+import com.github.refhumbold.yadic.YadicContainer;
+import com.github.refhumbold.yadic.jmh.models.ClassLeft;
+import com.github.refhumbold.yadic.jmh.models.ClassRight;
+import com.github.refhumbold.yadic.jmh.models.ClassSetters;
+import com.github.refhumbold.yadic.jmh.models.ClassTop;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SetterInjectionBenchmark
+{
+    private YadicContainer container;
+
+    @Setup
+    public void setUp()
+    {
+        container = new YadicContainer().registerType(ClassTop.class,
+                                                 ConstructionPolicy.CONSTRUCTION)
+                                         .registerType(ClassLeft.class,
+                                                 ConstructionPolicy.CONSTRUCTION)
+                                         .registerType(ClassRight.class,
+                                                 ConstructionPolicy.CONSTRUCTION)
+                                         .registerType(ClassSetters.class,
+                                                 ConstructionPolicy.CONSTRUCTION);
+    }
+
+    @Benchmark
+    public ClassSetters resolveSetters()
+    {
+        return container.resolve(ClassSetters.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.refhumbold.yadic.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import com.github.refhumbold.yadic.YadicContainer;
+import com.github.refhumbold.yadic.synthetic.GraphShape;
+import com.github.refhumbold.yadic.synthetic.SyntheticGraph;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SyntheticGraphBenchmark
+{
+    @Param({"DEEP", "WIDE", "MIXED"})
+    public String shape;
+
+    @Param({"10", "100", "200"})
+    public int size;
+
+    private YadicContainer container;
+    private Class<?> root;
+
+    @Setup
+    public void setUp()
+    {
+        SyntheticGraph graph = SyntheticGraph.generate(switch(shape)
+        {
+            case "DEEP" -> GraphShape.deep(size);
+            case "WIDE" -> GraphShape.wide(size);
+            // layers of interface chains with setters and singletons mixed in
+            default -> new GraphShape(4, size, 3, 2, 0.3, 0.5, size);
+        });
+
+        container = graph.registerIn(new YadicContainer());
+        root = graph.roots().get(0);
+    }
+
+    @Benchmark
+    public Object resolveRoot()
+    {
+        return container.resolve(root);
+    }
+}
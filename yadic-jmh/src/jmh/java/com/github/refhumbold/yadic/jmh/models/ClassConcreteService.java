@@ -0,0 +1,11 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public class ClassConcreteService
+        extends ClassAbstractService
+{
+    @Override
+    public String getName()
+    {
+        return "service";
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public class ClassDiamond
+{
+    private final ClassLeft left;
+    private final ClassRight right;
+
+    public ClassDiamond(ClassLeft left, ClassRight right)
+    {
+        this.left = left;
+        this.right = right;
+    }
+
+    public ClassLeft getLeft()
+    {
+        return left;
+    }
+
+    public ClassRight getRight()
+    {
+        return right;
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public class ClassLeft
+{
+    private final ClassTop top;
+
+    public ClassLeft(ClassTop top)
+    {
+        this.top = top;
+    }
+
+    public ClassTop getTop()
+    {
+        return top;
+    }
+}
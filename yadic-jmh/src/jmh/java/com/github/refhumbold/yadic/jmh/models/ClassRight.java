@@ -0,0 +1,16 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public class ClassRight
+{
+    private final ClassTop top;
+
+    public ClassRight(ClassTop top)
+    {
+        this.top = top;
+    }
+
+    public ClassTop getTop()
+    {
+        return top;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+import com.github.refhumbold.yadic.annotation.YadicDependency;
+
+public class ClassSetters
+{
+    private ClassLeft left;
+    private ClassRight right;
+
+    public ClassLeft getLeft()
+    {
+        return left;
+    }
+
+    @YadicDependency
+    public void setLeft(ClassLeft left)
+    {
+        this.left = left;
+    }
+
+    public ClassRight getRight()
+    {
+        return right;
+    }
+
+    @YadicDependency
+    public void setRight(ClassRight right)
+    {
+        this.right = right;
+    }
+}
@@ -0,0 +1,5 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public class ClassTop
+{
+}
@@ -0,0 +1,6 @@
+package com.github.refhumbold.yadic.jmh.models;
+
+public interface InterfaceService
+{
+    String getName();
+}
@@ -0,0 +1,258 @@
+package com.github.refhumbold.yadic.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor generating factories for types annotated with YADIC annotations. The
+ * generated factory invokes public constructors and dependency setters of its type directly, so
+ * that the container does not need reflection to call them.
+ */
+@SupportedAnnotationTypes({YadicFactoryProcessor.REGISTER, YadicFactoryProcessor.REGISTER_SELF,
+                           YadicFactoryProcessor.DEPENDENCY})
+public class YadicFactoryProcessor
+        extends AbstractProcessor
+{
+    static final String REGISTER = "com.github.refhumbold.yadic.annotation.YadicRegister";
+    static final String REGISTER_SELF = "com.github.refhumbold.yadic.annotation.YadicRegisterSelf";
+    static final String DEPENDENCY = "com.github.refhumbold.yadic.annotation.YadicDependency";
+    private static final String FACTORY = "com.github.refhumbold.yadic.factory.YadicFactory";
+    private static final String NAME_SUFFIX = "_YadicFactory";
+    private final Set<String> generatedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        Set<TypeElement> types = new LinkedHashSet<>();
+
+        for(TypeElement annotation : annotations)
+            for(Element element : roundEnv.getElementsAnnotatedWith(annotation))
+                switch(annotation.getQualifiedName().toString())
+                {
+                    case REGISTER_SELF -> types.add((TypeElement)element);
+                    case REGISTER ->
+                    {
+                        TypeElement subtype = findRegisteredSubtype(element);
+
+                        // factories are generated only for types compiled together
+                        if(subtype != null && roundEnv.getRootElements()
+                                                      .contains(findOutermost(subtype)))
+                            types.add(subtype);
+                    }
+                    case DEPENDENCY -> types.add((TypeElement)element.getEnclosingElement());
+                    default ->
+                    {
+                    }
+                }
+
+        for(TypeElement type : types)
+            if(isConstructible(type) && generatedTypes.add(type.getQualifiedName().toString()))
+                writeFactory(type);
+
+        return false;
+    }
+
+    private void writeFactory(TypeElement type)
+    {
+        String packageName =
+                processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String factoryName = getFactoryName(type);
+        String qualifiedName =
+                packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+
+        try(PrintWriter writer = new PrintWriter(
+                processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()))
+        {
+            writer.print(generateFactory(type, packageName, factoryName));
+        }
+        catch(IOException e)
+        {
+            processingEnv.getMessager()
+                         .printMessage(Diagnostic.Kind.ERROR,
+                                 String.format("Cannot write factory %s: %s", qualifiedName,
+                                         e.getMessage()), type);
+        }
+    }
+
+    private String generateFactory(TypeElement type, String packageName, String factoryName)
+    {
+        String rawName = type.getQualifiedName().toString();
+        // generic type is constructed with wildcards, so the factory type itself is not raw
+        String typeName = type.getTypeParameters().isEmpty()
+                          ? rawName
+                          : type.getTypeParameters()
+                                .stream()
+                                .map(parameter -> "?")
+                                .collect(Collectors.joining(", ", rawName + "<", ">"));
+        StringBuilder builder = new StringBuilder();
+
+        if(!packageName.isEmpty())
+            builder.append(String.format("package %s;%n%n", packageName));
+
+        builder.append(String.format("// generated by YADIC annotation processor%n"))
+               .append(String.format("public final class %s%n", factoryName))
+               .append(String.format("        implements %s<%s>%n{%n", FACTORY, typeName))
+               .append(String.format("    @Override%n"))
+               .append(String.format("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})%n"))
+               .append(String.format("    public %s.ConstructorCall<%s> constructor(%n", FACTORY,
+                       typeName))
+               .append(String.format("            Class<?>... parameterTypes)%n    {%n"));
+
+        for(ExecutableElement constructor : ElementFilter.constructorsIn(
+                type.getEnclosedElements()))
+            if(constructor.getModifiers().contains(Modifier.PUBLIC))
+            {
+                List<? extends VariableElement> parameters = constructor.getParameters();
+
+                builder.append(String.format(
+                               "        if(java.util.Arrays.equals(parameterTypes, "
+                                       + "new Class<?>[]{%s}))%n",
+                               parameters.stream()
+                                         .map(p -> getErasure(p.asType()) + ".class")
+                                         .collect(Collectors.joining(", "))))
+                       .append(String.format("            return arguments -> new %s(%s);%n%n",
+                               rawName, IntStream.range(0, parameters.size())
+                                                  .mapToObj(i -> String.format(
+                                                          "(%s)arguments[%d]", getErasure(
+                                                                  parameters.get(i).asType()),
+                                                          i))
+                                                  .collect(Collectors.joining(", "))));
+            }
+
+        builder.append(String.format("        return null;%n    }%n%n"))
+               .append(String.format("    @Override%n"))
+               .append(String.format("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})%n"))
+               .append(String.format("    public %s.SetterCall<%s> setter(%n", FACTORY, typeName))
+               .append(String.format("            String name, Class<?> parameterType)%n    {%n"));
+
+        // setters of generic type take type variables, so they are called on raw type
+        String receiver = typeName.equals(rawName) ? "object" : "((" + rawName + ")object)";
+
+        for(ExecutableElement setter : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(type)))
+            if(isDependencySetter(setter))
+            {
+                String parameterType = getErasure(setter.getParameters().get(0).asType());
+
+                builder.append(String.format(
+                               "        if(name.equals(\"%s\") && parameterType == %s.class)%n",
+                               setter.getSimpleName(), parameterType))
+                       .append(String.format(
+                               "            return (object, argument) -> %s.%s((%s)argument);%n%n",
+                               receiver, setter.getSimpleName(), parameterType));
+            }
+
+        return builder.append(String.format("        return null;%n    }%n}%n")).toString();
+    }
+
+    // keep in sync with naming of generated factories in YADIC container
+    private String getFactoryName(TypeElement type)
+    {
+        Element element = type;
+        StringBuilder builder = new StringBuilder(NAME_SUFFIX);
+
+        while(element.getKind().isClass() || element.getKind().isInterface())
+        {
+            builder.insert(0, element.getSimpleName()).insert(0, '$');
+            element = element.getEnclosingElement();
+        }
+
+        return builder.substring(1);
+    }
+
+    private String getErasure(TypeMirror type)
+    {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private TypeElement findRegisteredSubtype(Element element)
+    {
+        return element.getAnnotationMirrors()
+                      .stream()
+                      .filter(mirror -> hasName(mirror.getAnnotationType(), REGISTER))
+                      .flatMap(mirror -> mirror.getElementValues().entrySet().stream())
+                      .filter(entry -> entry.getKey().getSimpleName().contentEquals("value"))
+                      .map(entry -> entry.getValue().getValue())
+                      .filter(DeclaredType.class::isInstance)
+                      .map(value -> (TypeElement)((DeclaredType)value).asElement())
+                      .findFirst()
+                      .orElse(null);
+    }
+
+    private Element findOutermost(TypeElement type)
+    {
+        Element element = type;
+
+        while(element.getEnclosingElement().getKind() != ElementKind.PACKAGE)
+            element = element.getEnclosingElement();
+
+        return element;
+    }
+
+    private boolean isConstructible(TypeElement type)
+    {
+        if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+            return false;
+
+        Element element = type;
+
+        while(element.getKind().isClass() || element.getKind().isInterface())
+        {
+            TypeElement typeElement = (TypeElement)element;
+
+            if(!typeElement.getModifiers().contains(Modifier.PUBLIC)
+                    || typeElement.getNestingKind() == NestingKind.MEMBER
+                    && !typeElement.getModifiers().contains(Modifier.STATIC)
+                    && element == type)
+                return false;
+
+            element = element.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    private boolean isDependencySetter(ExecutableElement method)
+    {
+        return method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && method.getParameters().size() == 1
+                && method.getReturnType().getKind() == TypeKind.VOID
+                && method.getAnnotationMirrors()
+                         .stream()
+                         .anyMatch(mirror -> hasName(mirror.getAnnotationType(), DEPENDENCY));
+    }
+
+    private boolean hasName(DeclaredType type, String name)
+    {
+        return ((TypeElement)type.asElement()).getQualifiedName().contentEquals(name);
+    }
+}